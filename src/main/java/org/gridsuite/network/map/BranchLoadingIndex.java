@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.*;
+import org.gridsuite.network.map.model.BranchLoadingMapData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code top} most loaded lines and transformers of a network in a bounded min-heap,
+ * so that only {@code top} entries are ever retained whatever the network size.
+ */
+final class BranchLoadingIndex {
+
+    /**
+     * Maximum number of returned branches.
+     */
+    static final int MAX_TOP = 10000;
+
+    /**
+     * Initial capacity of the heap, which grows up to top branches when there are that many loaded ones.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Comparator<BranchLoadingMapData> BY_LOADING = Comparator.comparingDouble(BranchLoadingMapData::getLoading);
+
+    private final int top;
+
+    private final double threshold;
+
+    private final PriorityQueue<BranchLoadingMapData> heap;
+
+    private BranchLoadingIndex(int top, double threshold) {
+        this.top = top;
+        this.threshold = threshold;
+        this.heap = new PriorityQueue<>(Math.min(top, INITIAL_CAPACITY) + 1, BY_LOADING);
+    }
+
+    static List<BranchLoadingMapData> getMostLoadedBranches(Network network, int top, double threshold) {
+        BranchLoadingIndex index = new BranchLoadingIndex(top, threshold);
+        network.getLineStream().forEach(l -> index.add(l, ConnectableType.LINE,
+            l.getTerminal1(), l.getCurrentLimits1(), l.getTerminal2(), l.getCurrentLimits2(), null, null));
+        network.getTwoWindingsTransformerStream().forEach(t -> index.add(t, ConnectableType.TWO_WINDINGS_TRANSFORMER,
+            t.getTerminal1(), t.getCurrentLimits1(), t.getTerminal2(), t.getCurrentLimits2(), null, null));
+        network.getThreeWindingsTransformerStream().forEach(t -> index.add(t, ConnectableType.THREE_WINDINGS_TRANSFORMER,
+            t.getLeg1().getTerminal(), t.getLeg1().getCurrentLimits(),
+            t.getLeg2().getTerminal(), t.getLeg2().getCurrentLimits(),
+            t.getLeg3().getTerminal(), t.getLeg3().getCurrentLimits()));
+
+        List<BranchLoadingMapData> res = new ArrayList<>(index.heap);
+        res.sort(BY_LOADING.reversed());
+        return res;
+    }
+
+    private static double getLoading(Terminal terminal, CurrentLimits limits) {
+        if (terminal == null || limits == null || Double.isNaN(terminal.getI())
+            || Double.isNaN(limits.getPermanentLimit()) || limits.getPermanentLimit() <= 0) {
+            return Double.NaN;
+        }
+        return terminal.getI() / limits.getPermanentLimit();
+    }
+
+    private void add(Identifiable<?> branch, ConnectableType type,
+                     Terminal terminal1, CurrentLimits limits1,
+                     Terminal terminal2, CurrentLimits limits2,
+                     Terminal terminal3, CurrentLimits limits3) {
+        Terminal[] terminals = {terminal1, terminal2, terminal3};
+        CurrentLimits[] limits = {limits1, limits2, limits3};
+        int side = 0;
+        double loading = Double.NaN;
+        for (int k = 0; k < terminals.length; k++) {
+            double sideLoading = getLoading(terminals[k], limits[k]);
+            if (!Double.isNaN(sideLoading) && (Double.isNaN(loading) || sideLoading > loading)) {
+                loading = sideLoading;
+                side = k;
+            }
+        }
+        if (Double.isNaN(loading) || loading < threshold) {
+            return;
+        }
+        if (heap.size() == top && heap.peek().getLoading() >= loading) {
+            return;
+        }
+        heap.add(BranchLoadingMapData.builder()
+            .id(branch.getId())
+            .type(type)
+            .side(side + 1)
+            .i(terminals[side].getI())
+            .permanentLimit(limits[side].getPermanentLimit())
+            .loading(loading)
+            .build());
+        if (heap.size() > top) {
+            heap.poll();
+        }
+    }
+}
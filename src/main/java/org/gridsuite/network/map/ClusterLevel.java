@@ -0,0 +1,15 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+/**
+ * Levels of the substation clusters, from the coarsest to the finest.
+ */
+public enum ClusterLevel {
+    COUNTRY,
+    NOMINAL_VOLTAGE
+}
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+/**
+ * Kinds of equipments described by the map data, one per collection of {@link org.gridsuite.network.map.model.AllMapData}.
+ */
+public enum EquipmentType {
+    SUBSTATION,
+    LINE,
+    TWO_WINDINGS_TRANSFORMER,
+    THREE_WINDINGS_TRANSFORMER,
+    GENERATOR,
+    BATTERY,
+    DANGLING_LINE,
+    HVDC_LINE,
+    LCC_CONVERTER_STATION,
+    LOAD,
+    SHUNT_COMPENSATOR,
+    STATIC_VAR_COMPENSATOR,
+    VSC_CONVERTER_STATION
+}
@@ -0,0 +1,356 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Line;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.TapChanger;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.ThreeWindingsTransformer;
+import com.powsybl.iidm.network.TwoWindingsTransformer;
+import org.gridsuite.network.map.model.FlowHistoryMapData;
+import org.gridsuite.network.map.model.LineFlowHistoryMapData;
+import org.gridsuite.network.map.model.ThreeWindingsTransformerFlowHistoryMapData;
+import org.gridsuite.network.map.model.TwoWindingsTransformerFlowHistoryMapData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the branch flows of successive runs of a network in memory, so that they can be compared without fetching the
+ * network again: the terminal flows of lines and transformers, and the tap positions of transformers. Values are
+ * stored in columns, one table per branch type with one array per value and indexed by branch, and each run only keeps
+ * the values which changed since the previous one: the oldest retained run is the only complete one, later runs are
+ * replayed on it. Only the histories of the most recently used networks are kept.
+ */
+@Component
+class FlowHistoryStore {
+
+    /**
+     * Values of a run which differ from the previous run: branch indexes and values for each column.
+     */
+    private static final class Delta {
+
+        private final Instant date;
+
+        private final int[][] indexes;
+
+        private final double[][] values;
+
+        private Delta(Instant date, int columnCount) {
+            this.date = date;
+            indexes = new int[columnCount][];
+            values = new double[columnCount][];
+        }
+
+        private void applyTo(double[][] state) {
+            for (int c = 0; c < indexes.length; c++) {
+                for (int k = 0; k < indexes[c].length; k++) {
+                    state[c][indexes[c][k]] = values[c][k];
+                }
+            }
+        }
+    }
+
+    private static <T> List<ToDoubleFunction<T>> getFlowColumns(Function<T, Terminal> terminal) {
+        return List.of(branch -> terminal.apply(branch).getP(),
+            branch -> terminal.apply(branch).getQ(),
+            branch -> terminal.apply(branch).getI());
+    }
+
+    private static <T> ToDoubleFunction<T> getTapPositionColumn(Function<T, TapChanger<?, ?>> tapChanger) {
+        return branch -> {
+            TapChanger<?, ?> changer = tapChanger.apply(branch);
+            return changer != null ? changer.getTapPosition() : Double.NaN;
+        };
+    }
+
+    private static <T> List<ToDoubleFunction<T>> concat(Stream<List<ToDoubleFunction<T>>> columns) {
+        return columns.flatMap(List::stream).collect(Collectors.toUnmodifiableList());
+    }
+
+    // flows of each side, in p, q, i order, then tap positions
+    private static final List<ToDoubleFunction<Line>> LINE_COLUMNS = concat(Stream.of(getFlowColumns(Line::getTerminal1), getFlowColumns(Line::getTerminal2)));
+
+    private static final List<ToDoubleFunction<TwoWindingsTransformer>> TWO_WINDINGS_TRANSFORMER_COLUMNS = concat(Stream.of(
+        getFlowColumns(TwoWindingsTransformer::getTerminal1), getFlowColumns(TwoWindingsTransformer::getTerminal2),
+        List.of(getTapPositionColumn(TwoWindingsTransformer::getRatioTapChanger), getTapPositionColumn(TwoWindingsTransformer::getPhaseTapChanger))));
+
+    private static final List<ToDoubleFunction<ThreeWindingsTransformer>> THREE_WINDINGS_TRANSFORMER_COLUMNS = concat(Stream.of(
+        getFlowColumns(transformer -> transformer.getLeg1().getTerminal()),
+        getFlowColumns(transformer -> transformer.getLeg2().getTerminal()),
+        getFlowColumns(transformer -> transformer.getLeg3().getTerminal()),
+        List.of(getTapPositionColumn(transformer -> transformer.getLeg1().getRatioTapChanger()),
+            getTapPositionColumn(transformer -> transformer.getLeg2().getRatioTapChanger()),
+            getTapPositionColumn(transformer -> transformer.getLeg3().getRatioTapChanger()),
+            getTapPositionColumn(transformer -> transformer.getLeg1().getPhaseTapChanger()),
+            getTapPositionColumn(transformer -> transformer.getLeg2().getPhaseTapChanger()),
+            getTapPositionColumn(transformer -> transformer.getLeg3().getPhaseTapChanger()))));
+
+    /**
+     * Runs of the branches of one type.
+     */
+    private static final class Table<T extends Identifiable<T>> {
+
+        private final Function<Network, Stream<T>> branches;
+
+        private final List<ToDoubleFunction<T>> columns;
+
+        private final Map<String, Integer> branchIndexes = new HashMap<>();
+
+        private final List<String> branchIds = new ArrayList<>();
+
+        private Instant firstDate;
+
+        private double[][] first;
+
+        private double[][] last;
+
+        private final Deque<Delta> deltas = new ArrayDeque<>();
+
+        private Table(Function<Network, Stream<T>> branches, List<ToDoubleFunction<T>> columns) {
+            this.branches = branches;
+            this.columns = columns;
+            first = new double[columns.size()][0];
+            last = new double[columns.size()][0];
+        }
+
+        private static double[][] resize(double[][] state, int size) {
+            double[][] resized = new double[state.length][];
+            for (int c = 0; c < state.length; c++) {
+                resized[c] = Arrays.copyOf(state[c], size);
+                Arrays.fill(resized[c], state[c].length, size, Double.NaN);
+            }
+            return resized;
+        }
+
+        private static double[][] copy(double[][] state) {
+            return resize(state, state[0].length);
+        }
+
+        private double[][] read(Network network) {
+            branches.apply(network).forEach(branch -> branchIndexes.computeIfAbsent(branch.getId(), id -> {
+                branchIds.add(id);
+                return branchIds.size() - 1;
+            }));
+            // branches which are not in the network anymore have unknown values
+            double[][] state = resize(new double[columns.size()][0], branchIds.size());
+            branches.apply(network).forEach(branch -> {
+                int index = branchIndexes.get(branch.getId());
+                for (int c = 0; c < columns.size(); c++) {
+                    state[c][index] = columns.get(c).applyAsDouble(branch);
+                }
+            });
+            return state;
+        }
+
+        private void capture(Instant date, Network network, int maxRuns) {
+            double[][] state = read(network);
+            if (firstDate == null) {
+                firstDate = date;
+                first = copy(state);
+            } else {
+                double[][] previous = resize(last, state[0].length);
+                Delta delta = new Delta(date, columns.size());
+                for (int c = 0; c < columns.size(); c++) {
+                    int[] changed = changedIndexes(previous[c], state[c]);
+                    delta.indexes[c] = changed;
+                    double[] column = state[c];
+                    delta.values[c] = Arrays.stream(changed).mapToDouble(i -> column[i]).toArray();
+                }
+                deltas.addLast(delta);
+                if (deltas.size() >= maxRuns) {
+                    // the second oldest run becomes the complete one
+                    Delta oldest = deltas.removeFirst();
+                    first = resize(first, branchIds.size());
+                    oldest.applyTo(first);
+                    firstDate = oldest.date;
+                }
+            }
+            last = state;
+        }
+
+        private static int[] changedIndexes(double[] previous, double[] current) {
+            return IntStream.range(0, current.length)
+                .filter(i -> Double.doubleToLongBits(previous[i]) != Double.doubleToLongBits(current[i]))
+                .toArray();
+        }
+
+        /**
+         * Series of each branch, one list per column, of the runs captured in the given range, whose dates are added
+         * to the given list.
+         */
+        private <D> List<D> get(Instant from, Instant to, List<Instant> dates, BiFunction<String, List<List<Double>>, D> toMapData) {
+            List<double[][]> states = new ArrayList<>();
+            if (firstDate != null) {
+                double[][] state = resize(first, branchIds.size());
+                addIfInRange(dates, states, firstDate, state, from, to);
+                for (Delta delta : deltas) {
+                    delta.applyTo(state);
+                    addIfInRange(dates, states, delta.date, state, from, to);
+                }
+            }
+            return IntStream.range(0, branchIds.size())
+                .mapToObj(i -> toMapData.apply(branchIds.get(i), IntStream.range(0, columns.size())
+                    .mapToObj(c -> getSeries(states, c, i))
+                    .collect(Collectors.toList())))
+                .collect(Collectors.toUnmodifiableList());
+        }
+
+        private static void addIfInRange(List<Instant> dates, List<double[][]> states, Instant date, double[][] state,
+                                         Instant from, Instant to) {
+            if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                dates.add(date);
+                states.add(copy(state));
+            }
+        }
+
+        private static List<Double> getSeries(List<double[][]> states, int column, int index) {
+            return states.stream()
+                .map(state -> state[column][index])
+                .map(value -> Double.isNaN(value) ? null : value)
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static List<Integer> toTapPositions(List<Double> series) {
+        return series.stream().map(value -> value != null ? value.intValue() : null).collect(Collectors.toList());
+    }
+
+    /**
+     * Runs of all the branch types of a network, captured together so that their tables share the same dates.
+     */
+    private static final class History {
+
+        private final Table<Line> lines = new Table<>(Network::getLineStream, LINE_COLUMNS);
+
+        private final Table<TwoWindingsTransformer> twoWindingsTransformers = new Table<>(Network::getTwoWindingsTransformerStream,
+            TWO_WINDINGS_TRANSFORMER_COLUMNS);
+
+        private final Table<ThreeWindingsTransformer> threeWindingsTransformers = new Table<>(Network::getThreeWindingsTransformerStream,
+            THREE_WINDINGS_TRANSFORMER_COLUMNS);
+
+        private synchronized void capture(Instant date, Network network, int maxRuns) {
+            lines.capture(date, network, maxRuns);
+            twoWindingsTransformers.capture(date, network, maxRuns);
+            threeWindingsTransformers.capture(date, network, maxRuns);
+        }
+
+        private synchronized FlowHistoryMapData getLines(Instant from, Instant to) {
+            List<Instant> dates = new ArrayList<>();
+            List<LineFlowHistoryMapData> mapData = lines.get(from, to, dates, (id, series) -> LineFlowHistoryMapData.builder()
+                .id(id)
+                .p1(series.get(0))
+                .q1(series.get(1))
+                .i1(series.get(2))
+                .p2(series.get(3))
+                .q2(series.get(4))
+                .i2(series.get(5))
+                .build());
+            return FlowHistoryMapData.builder().dates(List.copyOf(dates)).lines(mapData).build();
+        }
+
+        private synchronized FlowHistoryMapData getTwoWindingsTransformers(Instant from, Instant to) {
+            List<Instant> dates = new ArrayList<>();
+            List<TwoWindingsTransformerFlowHistoryMapData> mapData = twoWindingsTransformers.get(from, to, dates, (id, series) -> TwoWindingsTransformerFlowHistoryMapData.builder()
+                .id(id)
+                .p1(series.get(0))
+                .q1(series.get(1))
+                .i1(series.get(2))
+                .p2(series.get(3))
+                .q2(series.get(4))
+                .i2(series.get(5))
+                .ratioTapChangerPosition(toTapPositions(series.get(6)))
+                .phaseTapChangerPosition(toTapPositions(series.get(7)))
+                .build());
+            return FlowHistoryMapData.builder().dates(List.copyOf(dates)).twoWindingsTransformers(mapData).build();
+        }
+
+        private synchronized FlowHistoryMapData getThreeWindingsTransformers(Instant from, Instant to) {
+            List<Instant> dates = new ArrayList<>();
+            List<ThreeWindingsTransformerFlowHistoryMapData> mapData = threeWindingsTransformers.get(from, to, dates, (id, series) -> ThreeWindingsTransformerFlowHistoryMapData.builder()
+                .id(id)
+                .p1(series.get(0))
+                .q1(series.get(1))
+                .i1(series.get(2))
+                .p2(series.get(3))
+                .q2(series.get(4))
+                .i2(series.get(5))
+                .p3(series.get(6))
+                .q3(series.get(7))
+                .i3(series.get(8))
+                .ratioTapChanger1Position(toTapPositions(series.get(9)))
+                .ratioTapChanger2Position(toTapPositions(series.get(10)))
+                .ratioTapChanger3Position(toTapPositions(series.get(11)))
+                .phaseTapChanger1Position(toTapPositions(series.get(12)))
+                .phaseTapChanger2Position(toTapPositions(series.get(13)))
+                .phaseTapChanger3Position(toTapPositions(series.get(14)))
+                .build());
+            return FlowHistoryMapData.builder().dates(List.copyOf(dates)).threeWindingsTransformers(mapData).build();
+        }
+    }
+
+    private final Map<UUID, History> histories = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxRuns;
+
+    private final int maxNetworks;
+
+    FlowHistoryStore(@Value("${network-map.history.max-runs:100}") int maxRuns,
+                     @Value("${network-map.history.max-networks:50}") int maxNetworks) {
+        this.maxRuns = maxRuns;
+        this.maxNetworks = maxNetworks;
+    }
+
+    private synchronized History getOrCreateHistory(UUID networkUuid) {
+        History history = histories.computeIfAbsent(networkUuid, uuid -> new History());
+        Iterator<UUID> it = histories.keySet().iterator();
+        while (histories.size() > maxNetworks && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        return history;
+    }
+
+    private synchronized History getHistory(UUID networkUuid) {
+        return histories.get(networkUuid);
+    }
+
+    void capture(UUID networkUuid, Instant date, Network network) {
+        getOrCreateHistory(networkUuid).capture(date, network, maxRuns);
+    }
+
+    FlowHistoryMapData getLines(UUID networkUuid, Instant from, Instant to) {
+        History history = getHistory(networkUuid);
+        return history != null ? history.getLines(from, to) : FlowHistoryMapData.builder().dates(List.of()).lines(List.of()).build();
+    }
+
+    FlowHistoryMapData getTwoWindingsTransformers(UUID networkUuid, Instant from, Instant to) {
+        History history = getHistory(networkUuid);
+        return history != null ? history.getTwoWindingsTransformers(from, to)
+            : FlowHistoryMapData.builder().dates(List.of()).twoWindingsTransformers(List.of()).build();
+    }
+
+    FlowHistoryMapData getThreeWindingsTransformers(UUID networkUuid, Instant from, Instant to) {
+        History history = getHistory(networkUuid);
+        return history != null ? history.getThreeWindingsTransformers(from, to)
+            : FlowHistoryMapData.builder().dates(List.of()).threeWindingsTransformers(List.of()).build();
+    }
+
+    synchronized void remove(UUID networkUuid) {
+        histories.remove(networkUuid);
+    }
+}
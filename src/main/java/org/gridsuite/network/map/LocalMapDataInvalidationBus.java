@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.gridsuite.network.map.model.NetworkModificationNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus delivering messages to the listeners of this process only, for tests and single instance
+ * deployments.
+ */
+@Component
+@ConditionalOnProperty(name = "network-map.invalidation.bus", havingValue = "local", matchIfMissing = true)
+class LocalMapDataInvalidationBus implements MapDataInvalidationBus {
+
+    private final List<Consumer<NetworkModificationNotification>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(NetworkModificationNotification notification) {
+        listeners.forEach(listener -> listener.accept(notification));
+    }
+
+    @Override
+    public void subscribe(Consumer<NetworkModificationNotification> listener) {
+        listeners.add(listener);
+    }
+}
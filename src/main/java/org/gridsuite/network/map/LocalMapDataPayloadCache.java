@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Payload cache in the memory of the process, not shared with other replicas: for tests and single instance
+ * deployments. Least recently used payloads are dropped over the maximum size, and payloads expire after the time to
+ * live.
+ */
+@Component
+@ConditionalOnProperty(name = "network-map.shared-cache.type", havingValue = "local")
+class LocalMapDataPayloadCache implements MapDataPayloadCache {
+
+    private static final class Entry {
+
+        private final byte[] payload;
+
+        private final long writeTime = System.nanoTime();
+
+        private Entry(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    private final long maxSize;
+
+    private final long timeToLive;
+
+    private long size;
+
+    private final Map<String, Entry> payloads = new LinkedHashMap<>(16, 0.75f, true);
+
+    LocalMapDataPayloadCache(@Value("${network-map.shared-cache.max-size:1GB}") DataSize maxSize,
+                             @Value("${network-map.shared-cache.time-to-live:PT60S}") Duration timeToLive) {
+        this.maxSize = maxSize.toBytes();
+        this.timeToLive = timeToLive.toNanos();
+    }
+
+    private static String getKey(UUID networkUuid, String key) {
+        return networkUuid + ":" + key;
+    }
+
+    @Override
+    public synchronized Optional<byte[]> get(UUID networkUuid, String key) {
+        Entry entry = payloads.get(getKey(networkUuid, key));
+        if (entry != null && System.nanoTime() - entry.writeTime >= timeToLive) {
+            evict(networkUuid, key);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry).map(e -> e.payload);
+    }
+
+    @Override
+    public synchronized void put(UUID networkUuid, String key, byte[] payload) {
+        Entry previous = payloads.put(getKey(networkUuid, key), new Entry(payload));
+        size += payload.length - (previous != null ? previous.payload.length : 0);
+        Iterator<Entry> it = payloads.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+            size -= it.next().payload.length;
+            it.remove();
+        }
+    }
+
+    @Override
+    public synchronized void evict(UUID networkUuid, String key) {
+        Entry previous = payloads.remove(getKey(networkUuid, key));
+        if (previous != null) {
+            size -= previous.payload.length;
+        }
+    }
+}
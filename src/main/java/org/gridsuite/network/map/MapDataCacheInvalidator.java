@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.gridsuite.network.map.model.NetworkModificationNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drops the cached map data of a modified network: the payloads of the shared cache once, then the caches local to
+ * each replica, through the invalidation bus. Local caches which do not depend on the modified equipment types are
+ * kept, substation slices are only dropped around the edited substations, and flow histories are only dropped with
+ * the whole network. Created at startup even with lazy initialization, so that the replica subscribes to the bus
+ * before serving map data.
+ */
+@Component
+@Lazy(false)
+class MapDataCacheInvalidator {
+
+    /**
+     * Keys of the payloads stored in the shared cache.
+     */
+    static final List<String> PAYLOAD_KEYS = List.of(NetworkMapService.ALL_GZIP_CACHE);
+
+    /**
+     * Equipment types whose powers are summed in the aggregates.
+     */
+    private static final Set<EquipmentType> AGGREGATED_TYPES = EnumSet.of(EquipmentType.GENERATOR, EquipmentType.BATTERY,
+        EquipmentType.LOAD, EquipmentType.DANGLING_LINE, EquipmentType.SHUNT_COMPENSATOR, EquipmentType.STATIC_VAR_COMPENSATOR,
+        EquipmentType.LCC_CONVERTER_STATION, EquipmentType.VSC_CONVERTER_STATION);
+
+    private final CacheManager cacheManager;
+
+    private final MapDataPayloadCache payloadCache;
+
+    private final MapDataSnapshotStore snapshotStore;
+
+    private final MapDataSliceCache sliceCache;
+
+    private final FlowHistoryStore flowHistoryStore;
+
+    private final MapDataInvalidationBus bus;
+
+    MapDataCacheInvalidator(CacheManager cacheManager, ObjectProvider<MapDataPayloadCache> payloadCache,
+                            MapDataSnapshotStore snapshotStore, MapDataSliceCache sliceCache, FlowHistoryStore flowHistoryStore,
+                            MapDataInvalidationBus bus) {
+        this.cacheManager = cacheManager;
+        this.payloadCache = payloadCache.getIfAvailable();
+        this.snapshotStore = snapshotStore;
+        this.sliceCache = sliceCache;
+        this.flowHistoryStore = flowHistoryStore;
+        this.bus = bus;
+        bus.subscribe(this::evictLocalCaches);
+    }
+
+    void invalidate(UUID networkUuid) {
+        invalidate(NetworkModificationNotification.builder().networkUuid(networkUuid).build());
+    }
+
+    void invalidate(NetworkModificationNotification notification) {
+        if (payloadCache != null) {
+            // whole network payloads hold every equipment type
+            PAYLOAD_KEYS.forEach(key -> payloadCache.evict(notification.getNetworkUuid(), key));
+        }
+        bus.publish(notification);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static boolean isModified(NetworkModificationNotification notification, Set<EquipmentType> types) {
+        return notification.getTypes() == null || !Collections.disjoint(notification.getTypes(), types);
+    }
+
+    private void evictLocalCaches(NetworkModificationNotification notification) {
+        UUID networkUuid = notification.getNetworkUuid();
+        evict(NetworkMapService.ALL_GZIP_CACHE, networkUuid);
+        snapshotStore.remove(networkUuid);
+        sliceCache.invalidate(networkUuid, notification.getSubstationIds());
+        if (notification.getTypes() == null && notification.getSubstationIds() == null) {
+            // the whole network was replaced or deleted, its branch flows cannot be compared with the new ones
+            flowHistoryStore.remove(networkUuid);
+        }
+        if (isModified(notification, AGGREGATED_TYPES)) {
+            evict(NetworkMapService.AGGREGATES_CACHE, networkUuid);
+        }
+        if (isModified(notification, EnumSet.of(EquipmentType.SUBSTATION))) {
+            for (ClusterLevel level : ClusterLevel.values()) {
+                evict(NetworkMapService.CLUSTERS_CACHE, new SimpleKey(networkUuid, level, false));
+                evict(NetworkMapService.CLUSTERS_CACHE, new SimpleKey(networkUuid, level, true));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes map data to gzip compressed JSON, so that large payloads can be cached and served
+ * already compressed instead of being compressed again for every client.
+ */
+@Component
+class MapDataCompressor {
+
+    private final ObjectMapper objectMapper;
+
+    private final int level;
+
+    private final Counter inputBytes;
+
+    private final Counter outputBytes;
+
+    private final Timer compressionTimer;
+
+    MapDataCompressor(ObjectMapper objectMapper,
+                      ObjectProvider<MeterRegistry> meterRegistry,
+                      @Value("${network-map.compression.level:" + Deflater.DEFAULT_COMPRESSION + "}") int level) {
+        this.objectMapper = objectMapper;
+        this.level = level;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        inputBytes = Counter.builder("network.map.compression.input")
+            .baseUnit("bytes")
+            .description("Size of the JSON payloads before compression")
+            .register(registry);
+        outputBytes = Counter.builder("network.map.compression.output")
+            .baseUnit("bytes")
+            .description("Size of the JSON payloads after compression")
+            .register(registry);
+        compressionTimer = Timer.builder("network.map.compression.time")
+            .description("Time spent serializing and compressing payloads")
+            .register(registry);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        /**
+         * Whether closing this stream closes the underlying one, otherwise it is only flushed.
+         */
+        private final boolean closing;
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out, boolean closing) {
+            this.out = out;
+            this.closing = closing;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closing) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        }
+    }
+
+    private void writeGzipJson(Object mapData, CountingOutputStream compressed) {
+        compressionTimer.record(() -> {
+            CountingOutputStream json;
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                json = new CountingOutputStream(gzip, true);
+                objectMapper.writeValue(json, mapData);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            inputBytes.increment(json.count);
+            outputBytes.increment(compressed.count);
+        });
+    }
+
+    byte[] toGzipJson(Object mapData) {
+        return MapDataProfile.time("compression", () -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            writeGzipJson(mapData, new CountingOutputStream(compressed, true));
+            return compressed.toByteArray();
+        });
+    }
+
+    /**
+     * Writes map data as gzip compressed JSON to the given stream, which is flushed but left open.
+     */
+    void writeGzipJson(Object mapData, OutputStream out) {
+        writeGzipJson(mapData, new CountingOutputStream(out, false));
+    }
+}
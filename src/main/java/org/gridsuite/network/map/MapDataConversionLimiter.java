@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the heavy conversions of whole networks with a budget of weight units, so that a few unfiltered requests
+ * cannot exhaust the heap. A conversion weighs its estimated map data size and waits in a fair queue until its weight
+ * is available, and is rejected with 503 after a timeout. Substation filtered requests are cheap and latency
+ * sensitive, they are never queued.
+ */
+@Component
+class MapDataConversionLimiter {
+
+    private final int maxWeight;
+
+    private final long weightUnit;
+
+    private final Duration timeout;
+
+    private final AtomicLong admissionCount = new AtomicLong();
+
+    private final Semaphore budget;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+
+    private final Counter rejected;
+
+    MapDataConversionLimiter(ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${network-map.admission.max-weight:64}") int maxWeight,
+                               @Value("${network-map.admission.weight-unit:16MB}") DataSize weightUnit,
+                               @Value("${network-map.admission.timeout:PT30S}") Duration timeout) {
+        if (maxWeight <= 0 || weightUnit.toBytes() <= 0) {
+            throw new IllegalArgumentException("Admission max weight and weight unit must be strictly positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weightUnit = weightUnit.toBytes();
+        this.timeout = timeout;
+        budget = new Semaphore(maxWeight, true);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("network.map.admission.queue", waiting, AtomicInteger::get)
+            .description("Number of whole network conversions waiting for admission")
+            .register(registry);
+        Gauge.builder("network.map.admission.weight", budget, b -> (double) maxWeight - b.availablePermits())
+            .description("Weight of the whole network conversions in progress")
+            .register(registry);
+        waitTimer = Timer.builder("network.map.admission.wait")
+            .description("Time spent waiting for admission")
+            .register(registry);
+        rejected = Counter.builder("network.map.admission.rejected")
+            .description("Number of whole network conversions rejected after waiting too long")
+            .register(registry);
+    }
+
+    /**
+     * Weight of a conversion whose map data is estimated to the given size in bytes.
+     */
+    int getWeight(long estimatedSize) {
+        long units = estimatedSize / weightUnit + (estimatedSize % weightUnit != 0 ? 1 : 0);
+        return (int) Math.min(maxWeight, Math.max(1, units));
+    }
+
+    private int acquire(int weight) {
+        int permits = Math.min(Math.max(weight, 1), maxWeight);
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = budget.tryAcquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for admission");
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many whole network requests in progress, retry later or filter by substation");
+        }
+        return permits;
+    }
+
+    /**
+     * Runs a conversion once the given weight is available in the budget. Weights larger than the whole budget are
+     * capped, so that such a conversion runs alone instead of never being admitted.
+     */
+    <T> T admit(int weight, Supplier<T> conversion) {
+        int permits = acquire(weight);
+        try {
+            return conversion.get();
+        } finally {
+            budget.release(permits);
+        }
+    }
+
+    /**
+     * Runs a conversion like {@link #admit}, but only gives its weight back once the response of the current request
+     * has been written, as serializing the converted map data is when the heap usage peaks. Outside of a request, the
+     * weight is given back as soon as the conversion is done.
+     */
+    <T> T admitUntilWritten(int weight, Supplier<T> conversion) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return admit(weight, conversion);
+        }
+        int permits = acquire(weight);
+        try {
+            T result = conversion.get();
+            request.registerDestructionCallback(MapDataConversionLimiter.class.getName() + ".admission-" + admissionCount.incrementAndGet(),
+                () -> budget.release(permits), RequestAttributes.SCOPE_REQUEST);
+            return result;
+        } catch (RuntimeException | Error e) {
+            budget.release(permits);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Connectable;
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VoltageLevel;
+import org.gridsuite.network.map.model.AllMapData;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Describes how one {@link EquipmentType} is read from a network and converted to map data.
+ *
+ * @param <T> the iidm equipment type
+ * @param <D> the map data type
+ */
+final class MapDataConverter<T, D> {
+
+    private final EquipmentType type;
+
+    private final Class<T> equipmentClass;
+
+    private final Function<Network, Stream<T>> networkStream;
+
+    private final Function<VoltageLevel, Stream<T>> voltageLevelStream;
+
+    private final Function<T, D> toMapData;
+
+    private final BiConsumer<AllMapData.AllMapDataBuilder, List<D>> allMapDataSetter;
+
+    private final String fieldName;
+
+    private final int footprint;
+
+    MapDataConverter(EquipmentType type, Class<T> equipmentClass,
+                     Function<Network, Stream<T>> networkStream,
+                     Function<VoltageLevel, Stream<T>> voltageLevelStream,
+                     Function<T, D> toMapData,
+                     BiConsumer<AllMapData.AllMapDataBuilder, List<D>> allMapDataSetter,
+                     String fieldName, int footprint) {
+        this.type = Objects.requireNonNull(type);
+        this.equipmentClass = Objects.requireNonNull(equipmentClass);
+        this.networkStream = Objects.requireNonNull(networkStream);
+        this.voltageLevelStream = voltageLevelStream;
+        this.toMapData = Objects.requireNonNull(toMapData);
+        this.allMapDataSetter = Objects.requireNonNull(allMapDataSetter);
+        this.fieldName = Objects.requireNonNull(fieldName);
+        this.footprint = footprint;
+    }
+
+    /**
+     * Converter of an equipment that is itself a connectable of class {@code clazz}.
+     */
+    static <T extends Connectable<T>, D> MapDataConverter<T, D> ofConnectable(EquipmentType type, Class<T> clazz,
+                                                                          Function<Network, Stream<T>> networkStream,
+                                                                          Function<T, D> toMapData,
+                                                                          BiConsumer<AllMapData.AllMapDataBuilder, List<D>> allMapDataSetter,
+                                                                          String fieldName, int footprint) {
+        return new MapDataConverter<>(type, clazz, networkStream,
+            v -> v.getConnectableStream(clazz),
+            toMapData, allMapDataSetter, fieldName, footprint);
+    }
+
+    EquipmentType getType() {
+        return type;
+    }
+
+    /**
+     * Whether the given identifiable is an equipment of this converter type.
+     */
+    boolean isEquipment(Identifiable<?> identifiable) {
+        return equipmentClass.isInstance(identifiable);
+    }
+
+    /**
+     * Name of the {@link AllMapData} field holding the map data of this equipment type.
+     */
+    String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Rough estimate of the heap size in bytes of the map data of the equipments of the given network.
+     */
+    long estimateSize(Network network) {
+        return estimateSize(networkStream.apply(network).count());
+    }
+
+    /**
+     * Rough estimate of the heap size in bytes of the map data of the equipments of the given voltage level.
+     */
+    long estimateSize(VoltageLevel voltageLevel) {
+        return estimateSize(voltageLevelStream.apply(voltageLevel).filter(Objects::nonNull).count());
+    }
+
+    /**
+     * Rough estimate of the heap size in bytes of the map data of the given number of equipments.
+     */
+    long estimateSize(long equipmentCount) {
+        return equipmentCount * footprint;
+    }
+
+    D toMapData(T equipment) {
+        return toMapData.apply(equipment);
+    }
+
+    Stream<D> getMapDataStream(Network network) {
+        return networkStream.apply(network).map(toMapData);
+    }
+
+    void setMapData(AllMapData.AllMapDataBuilder builder, Network network) {
+        List<D> mapData = MapDataProfile.time("conversion-" + fieldName, () -> getMapDataStream(network).collect(Collectors.toUnmodifiableList()));
+        MapDataProfile.count(fieldName, mapData.size());
+        allMapDataSetter.accept(builder, mapData);
+    }
+
+    Sink newSink() {
+        return new Sink();
+    }
+
+    /**
+     * Collects the map data of the equipments found during a topology traversal, without duplicates and in encounter
+     * order.
+     */
+    final class Sink {
+
+        private final Set<D> mapData = new LinkedHashSet<>();
+
+        private int addCount;
+
+        EquipmentType getType() {
+            return type;
+        }
+
+        void add(T equipment) {
+            mapData.add(toMapData.apply(equipment));
+            addCount++;
+        }
+
+        /**
+         * Adds the given identifiable, which has to be an equipment of the converter type.
+         */
+        void addIdentifiable(Identifiable<?> identifiable) {
+            add(equipmentClass.cast(identifiable));
+        }
+
+        void accept(VoltageLevel voltageLevel) {
+            voltageLevelStream.apply(voltageLevel)
+                .filter(Objects::nonNull)
+                .map(toMapData)
+                .forEach(d -> {
+                    mapData.add(d);
+                    addCount++;
+                });
+        }
+
+        /**
+         * Adds map data already converted from equipments of the converter type.
+         */
+        @SuppressWarnings("unchecked")
+        void addMapData(Collection<?> converted) {
+            converted.forEach(d -> mapData.add((D) d));
+            addCount += converted.size();
+        }
+
+        List<D> getMapData() {
+            MapDataProfile.count(fieldName, mapData.size());
+            if (addCount > mapData.size()) {
+                // branches are found from the voltage levels of both sides
+                MapDataProfile.count(fieldName + "-duplicates", (long) addCount - mapData.size());
+            }
+            return List.copyOf(mapData);
+        }
+
+        void setMapData(AllMapData.AllMapDataBuilder builder) {
+            allMapDataSetter.accept(builder, getMapData());
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.sld.iidm.extensions.BranchStatus;
+import org.gridsuite.network.map.model.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the map data converters, one per {@link EquipmentType}, each converting equipments with a table of
+ * {@link MapDataFields}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ * @author Franck Lecuyer <franck.lecuyer at rte-france.com>
+ */
+final class MapDataConverters {
+
+    private MapDataConverters() {
+    }
+
+    private static String getBranchStatus(Line line) {
+        BranchStatus branchStatus = line.getExtension(BranchStatus.class);
+        return branchStatus != null ? branchStatus.getStatus().name() : null;
+    }
+
+    private static String getHvdcLineId(HvdcConverterStation<?> converterStation) {
+        return converterStation.getHvdcLine() != null ? converterStation.getHvdcLine().getId() : null;
+    }
+
+    private static final MapDataFields<VoltageLevel, VoltageLevelMapData.VoltageLevelMapDataBuilder, VoltageLevelMapData> VOLTAGE_LEVEL_FIELDS =
+        MapDataFields.of(VoltageLevel.class, VoltageLevelMapData::builder, VoltageLevelMapData.VoltageLevelMapDataBuilder::build)
+            .identifiable(VoltageLevelMapData.VoltageLevelMapDataBuilder::name, VoltageLevelMapData.VoltageLevelMapDataBuilder::id)
+            .field(VoltageLevel::getNominalV, VoltageLevelMapData.VoltageLevelMapDataBuilder::nominalVoltage)
+            .build();
+
+    private static final MapDataFields<Substation, SubstationMapData.SubstationMapDataBuilder, SubstationMapData> SUBSTATION_FIELDS =
+        MapDataFields.of(Substation.class, SubstationMapData::builder, SubstationMapData.SubstationMapDataBuilder::build)
+            .identifiable(SubstationMapData.SubstationMapDataBuilder::name, SubstationMapData.SubstationMapDataBuilder::id)
+            .field(substation -> substation.getCountry().map(Country::getName).orElse(null), SubstationMapData.SubstationMapDataBuilder::countryName)
+            .field(substation -> substation.getVoltageLevelStream().map(VOLTAGE_LEVEL_FIELDS).collect(Collectors.toUnmodifiableList()),
+                SubstationMapData.SubstationMapDataBuilder::voltageLevels)
+            .build();
+
+    private static final MapDataFields<Line, LineMapData.LineMapDataBuilder, LineMapData> LINE_FIELDS =
+        MapDataFields.of(Line.class, LineMapData::builder, LineMapData.LineMapDataBuilder::build)
+            .identifiable(LineMapData.LineMapDataBuilder::name, LineMapData.LineMapDataBuilder::id)
+            .terminal(Line::getTerminal1, LineMapData.LineMapDataBuilder::terminal1Connected, LineMapData.LineMapDataBuilder::voltageLevelId1,
+                LineMapData.LineMapDataBuilder::p1, LineMapData.LineMapDataBuilder::q1, LineMapData.LineMapDataBuilder::i1)
+            .terminal(Line::getTerminal2, LineMapData.LineMapDataBuilder::terminal2Connected, LineMapData.LineMapDataBuilder::voltageLevelId2,
+                LineMapData.LineMapDataBuilder::p2, LineMapData.LineMapDataBuilder::q2, LineMapData.LineMapDataBuilder::i2)
+            .permanentLimit(Line::getCurrentLimits1, LineMapData.LineMapDataBuilder::permanentLimit1)
+            .permanentLimit(Line::getCurrentLimits2, LineMapData.LineMapDataBuilder::permanentLimit2)
+            .field(MapDataConverters::getBranchStatus, LineMapData.LineMapDataBuilder::branchStatus)
+            .build();
+
+    private static final MapDataFields<Generator, GeneratorMapData.GeneratorMapDataBuilder, GeneratorMapData> GENERATOR_FIELDS =
+        MapDataFields.of(Generator.class, GeneratorMapData::builder, GeneratorMapData.GeneratorMapDataBuilder::build)
+            .identifiable(GeneratorMapData.GeneratorMapDataBuilder::name, GeneratorMapData.GeneratorMapDataBuilder::id)
+            .terminal(Generator::getTerminal, GeneratorMapData.GeneratorMapDataBuilder::terminalConnected, GeneratorMapData.GeneratorMapDataBuilder::voltageLevelId,
+                GeneratorMapData.GeneratorMapDataBuilder::p, GeneratorMapData.GeneratorMapDataBuilder::q, null)
+            .field(Generator::getTargetP, GeneratorMapData.GeneratorMapDataBuilder::targetP)
+            .field(Generator::getMinP, GeneratorMapData.GeneratorMapDataBuilder::minP)
+            .field(Generator::getMaxP, GeneratorMapData.GeneratorMapDataBuilder::maxP)
+            .build();
+
+    private static final MapDataFields<TwoWindingsTransformer, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder, TwoWindingsTransformerMapData> TWO_WINDINGS_TRANSFORMER_FIELDS =
+        MapDataFields.of(TwoWindingsTransformer.class, TwoWindingsTransformerMapData::builder, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::build)
+            .identifiable(TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::name, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::id)
+            .terminal(TwoWindingsTransformer::getTerminal1, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::terminal1Connected,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::voltageLevelId1, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::p1,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::q1, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::i1)
+            .terminal(TwoWindingsTransformer::getTerminal2, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::terminal2Connected,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::voltageLevelId2, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::p2,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::q2, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::i2)
+            .permanentLimit(TwoWindingsTransformer::getCurrentLimits1, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::permanentLimit1)
+            .permanentLimit(TwoWindingsTransformer::getCurrentLimits2, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::permanentLimit2)
+            .tapChanger(TwoWindingsTransformer::getRatioTapChanger, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::ratioTapChanger,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::ratioTapChangerPosition)
+            .tapChanger(TwoWindingsTransformer::getPhaseTapChanger, TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::phaseTapChanger,
+                TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder::phaseTapChangerPosition)
+            .build();
+
+    private static final MapDataFields<ThreeWindingsTransformer, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder, ThreeWindingsTransformerMapData> THREE_WINDINGS_TRANSFORMER_FIELDS =
+        MapDataFields.of(ThreeWindingsTransformer.class, ThreeWindingsTransformerMapData::builder, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::build)
+            .identifiable(ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::name, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::id)
+            .terminal(transformer -> transformer.getLeg1().getTerminal(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::terminal1Connected,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::voltageLevelId1, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::p1,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::q1, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::i1)
+            .terminal(transformer -> transformer.getLeg2().getTerminal(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::terminal2Connected,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::voltageLevelId2, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::p2,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::q2, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::i2)
+            .terminal(transformer -> transformer.getLeg3().getTerminal(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::terminal3Connected,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::voltageLevelId3, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::p3,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::q3, ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::i3)
+            .permanentLimit(transformer -> transformer.getLeg1().getCurrentLimits(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::permanentLimit1)
+            .permanentLimit(transformer -> transformer.getLeg2().getCurrentLimits(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::permanentLimit2)
+            .permanentLimit(transformer -> transformer.getLeg3().getCurrentLimits(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::permanentLimit3)
+            .tapChanger(transformer -> transformer.getLeg1().getRatioTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger1,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger1Position)
+            .tapChanger(transformer -> transformer.getLeg2().getRatioTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger2,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger2Position)
+            .tapChanger(transformer -> transformer.getLeg3().getRatioTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger3,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::ratioTapChanger3Position)
+            .tapChanger(transformer -> transformer.getLeg1().getPhaseTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger1,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger1Position)
+            .tapChanger(transformer -> transformer.getLeg2().getPhaseTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger2,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger2Position)
+            .tapChanger(transformer -> transformer.getLeg3().getPhaseTapChanger(), ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger3,
+                ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder::phaseTapChanger3Position)
+            .build();
+
+    private static final MapDataFields<Battery, BatteryMapData.BatteryMapDataBuilder, BatteryMapData> BATTERY_FIELDS =
+        MapDataFields.of(Battery.class, BatteryMapData::builder, BatteryMapData.BatteryMapDataBuilder::build)
+            .identifiable(BatteryMapData.BatteryMapDataBuilder::name, BatteryMapData.BatteryMapDataBuilder::id)
+            .terminal(Battery::getTerminal, BatteryMapData.BatteryMapDataBuilder::terminalConnected, BatteryMapData.BatteryMapDataBuilder::voltageLevelId,
+                BatteryMapData.BatteryMapDataBuilder::p, BatteryMapData.BatteryMapDataBuilder::q, null)
+            .field(Battery::getP0, BatteryMapData.BatteryMapDataBuilder::p0)
+            .field(Battery::getQ0, BatteryMapData.BatteryMapDataBuilder::q0)
+            .build();
+
+    private static final MapDataFields<DanglingLine, DanglingLineMapData.DanglingLineMapDataBuilder, DanglingLineMapData> DANGLING_LINE_FIELDS =
+        MapDataFields.of(DanglingLine.class, DanglingLineMapData::builder, DanglingLineMapData.DanglingLineMapDataBuilder::build)
+            .identifiable(DanglingLineMapData.DanglingLineMapDataBuilder::name, DanglingLineMapData.DanglingLineMapDataBuilder::id)
+            .terminal(DanglingLine::getTerminal, DanglingLineMapData.DanglingLineMapDataBuilder::terminalConnected, DanglingLineMapData.DanglingLineMapDataBuilder::voltageLevelId,
+                DanglingLineMapData.DanglingLineMapDataBuilder::p, DanglingLineMapData.DanglingLineMapDataBuilder::q, null)
+            .field(DanglingLine::getUcteXnodeCode, DanglingLineMapData.DanglingLineMapDataBuilder::ucteXnodeCode)
+            .field(DanglingLine::getP0, DanglingLineMapData.DanglingLineMapDataBuilder::p0)
+            .field(DanglingLine::getQ0, DanglingLineMapData.DanglingLineMapDataBuilder::q0)
+            .build();
+
+    private static final MapDataFields<HvdcLine, HvdcLineMapData.HvdcLineMapDataBuilder, HvdcLineMapData> HVDC_LINE_FIELDS =
+        MapDataFields.of(HvdcLine.class, HvdcLineMapData::builder, HvdcLineMapData.HvdcLineMapDataBuilder::build)
+            .identifiable(HvdcLineMapData.HvdcLineMapDataBuilder::name, HvdcLineMapData.HvdcLineMapDataBuilder::id)
+            .field(HvdcLine::getConvertersMode, HvdcLineMapData.HvdcLineMapDataBuilder::convertersMode)
+            .field(hvdcLine -> hvdcLine.getConverterStation1().getId(), HvdcLineMapData.HvdcLineMapDataBuilder::converterStationId1)
+            .field(hvdcLine -> hvdcLine.getConverterStation2().getId(), HvdcLineMapData.HvdcLineMapDataBuilder::converterStationId2)
+            .field(HvdcLine::getActivePowerSetpoint, HvdcLineMapData.HvdcLineMapDataBuilder::activePowerSetpoint)
+            .build();
+
+    private static final MapDataFields<LccConverterStation, LccConverterStationMapData.LccConverterStationMapDataBuilder<?, ?>, LccConverterStationMapData> LCC_CONVERTER_STATION_FIELDS =
+        MapDataFields.<LccConverterStation, LccConverterStationMapData.LccConverterStationMapDataBuilder<?, ?>, LccConverterStationMapData>of(LccConverterStation.class, LccConverterStationMapData::builder, LccConverterStationMapData.LccConverterStationMapDataBuilder::build)
+            .identifiable(LccConverterStationMapData.LccConverterStationMapDataBuilder::name, LccConverterStationMapData.LccConverterStationMapDataBuilder::id)
+            .terminal(LccConverterStation::getTerminal, LccConverterStationMapData.LccConverterStationMapDataBuilder::terminalConnected,
+                LccConverterStationMapData.LccConverterStationMapDataBuilder::voltageLevelId, LccConverterStationMapData.LccConverterStationMapDataBuilder::p,
+                LccConverterStationMapData.LccConverterStationMapDataBuilder::q, null)
+            .field(LccConverterStation::getLossFactor, LccConverterStationMapData.LccConverterStationMapDataBuilder::lossFactor)
+            .field(LccConverterStation::getPowerFactor, LccConverterStationMapData.LccConverterStationMapDataBuilder::powerFactor)
+            .field(MapDataConverters::getHvdcLineId, LccConverterStationMapData.LccConverterStationMapDataBuilder::hvdcLineId)
+            .build();
+
+    private static final MapDataFields<VscConverterStation, VscConverterStationMapData.VscConverterStationMapDataBuilder<?, ?>, VscConverterStationMapData> VSC_CONVERTER_STATION_FIELDS =
+        MapDataFields.<VscConverterStation, VscConverterStationMapData.VscConverterStationMapDataBuilder<?, ?>, VscConverterStationMapData>of(VscConverterStation.class, VscConverterStationMapData::builder, VscConverterStationMapData.VscConverterStationMapDataBuilder::build)
+            .identifiable(VscConverterStationMapData.VscConverterStationMapDataBuilder::name, VscConverterStationMapData.VscConverterStationMapDataBuilder::id)
+            .terminal(VscConverterStation::getTerminal, VscConverterStationMapData.VscConverterStationMapDataBuilder::terminalConnected,
+                VscConverterStationMapData.VscConverterStationMapDataBuilder::voltageLevelId, VscConverterStationMapData.VscConverterStationMapDataBuilder::p,
+                VscConverterStationMapData.VscConverterStationMapDataBuilder::q, null)
+            .field(VscConverterStation::getLossFactor, VscConverterStationMapData.VscConverterStationMapDataBuilder::lossFactor)
+            .field(MapDataConverters::getHvdcLineId, VscConverterStationMapData.VscConverterStationMapDataBuilder::hvdcLineId)
+            .build();
+
+    private static final MapDataFields<Load, LoadMapData.LoadMapDataBuilder, LoadMapData> LOAD_FIELDS =
+        MapDataFields.of(Load.class, LoadMapData::builder, LoadMapData.LoadMapDataBuilder::build)
+            .identifiable(LoadMapData.LoadMapDataBuilder::name, LoadMapData.LoadMapDataBuilder::id)
+            .terminal(Load::getTerminal, LoadMapData.LoadMapDataBuilder::terminalConnected, LoadMapData.LoadMapDataBuilder::voltageLevelId,
+                LoadMapData.LoadMapDataBuilder::p, LoadMapData.LoadMapDataBuilder::q, null)
+            .field(Load::getLoadType, LoadMapData.LoadMapDataBuilder::type)
+            .field(Load::getP0, LoadMapData.LoadMapDataBuilder::p0)
+            .field(Load::getQ0, LoadMapData.LoadMapDataBuilder::q0)
+            .build();
+
+    private static final MapDataFields<ShuntCompensator, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder, ShuntCompensatorMapData> SHUNT_COMPENSATOR_FIELDS =
+        MapDataFields.of(ShuntCompensator.class, ShuntCompensatorMapData::builder, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::build)
+            .identifiable(ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::name, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::id)
+            .terminal(ShuntCompensator::getTerminal, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::terminalConnected,
+                ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::voltageLevelId, null, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::q, null)
+            .nullableField(ShuntCompensator::getTargetV, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::targetV)
+            .nullableField(ShuntCompensator::getTargetDeadband, ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder::targetDeadband)
+            .build();
+
+    private static final MapDataFields<StaticVarCompensator, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder, StaticVarCompensatorMapData> STATIC_VAR_COMPENSATOR_FIELDS =
+        MapDataFields.of(StaticVarCompensator.class, StaticVarCompensatorMapData::builder, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::build)
+            .identifiable(StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::name, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::id)
+            .terminal(StaticVarCompensator::getTerminal, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::terminalConnected,
+                StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::voltageLevelId, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::p,
+                StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::q, null)
+            .field(StaticVarCompensator::getRegulationMode, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::regulationMode)
+            .nullableField(StaticVarCompensator::getVoltageSetpoint, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::voltageSetpoint)
+            .nullableField(StaticVarCompensator::getReactivePowerSetpoint, StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder::reactivePowerSetpoint)
+            .build();
+
+    // converters end with the name of their AllMapData field and a rough heap size in bytes of one map data object,
+    // strings included, used to estimate the memory needed by a request
+
+    static final MapDataConverter<Substation, SubstationMapData> SUBSTATIONS = new MapDataConverter<>(
+        EquipmentType.SUBSTATION, Substation.class, Network::getSubstationStream, null,
+        SUBSTATION_FIELDS, AllMapData.AllMapDataBuilder::substations,
+        "substations", 600);
+
+    static final MapDataConverter<Line, LineMapData> LINES = MapDataConverter.ofConnectable(
+        EquipmentType.LINE, Line.class, Network::getLineStream,
+        LINE_FIELDS, AllMapData.AllMapDataBuilder::lines,
+        "lines", 450);
+
+    static final MapDataConverter<TwoWindingsTransformer, TwoWindingsTransformerMapData> TWO_WINDINGS_TRANSFORMERS = MapDataConverter.ofConnectable(
+        EquipmentType.TWO_WINDINGS_TRANSFORMER, TwoWindingsTransformer.class, Network::getTwoWindingsTransformerStream,
+        TWO_WINDINGS_TRANSFORMER_FIELDS, AllMapData.AllMapDataBuilder::twoWindingsTransformers,
+        "twoWindingsTransformers", 650);
+
+    static final MapDataConverter<ThreeWindingsTransformer, ThreeWindingsTransformerMapData> THREE_WINDINGS_TRANSFORMERS = MapDataConverter.ofConnectable(
+        EquipmentType.THREE_WINDINGS_TRANSFORMER, ThreeWindingsTransformer.class, Network::getThreeWindingsTransformerStream,
+        THREE_WINDINGS_TRANSFORMER_FIELDS, AllMapData.AllMapDataBuilder::threeWindingsTransformers,
+        "threeWindingsTransformers", 900);
+
+    static final MapDataConverter<Generator, GeneratorMapData> GENERATORS = MapDataConverter.ofConnectable(
+        EquipmentType.GENERATOR, Generator.class, Network::getGeneratorStream,
+        GENERATOR_FIELDS, AllMapData.AllMapDataBuilder::generators,
+        "generators", 350);
+
+    static final MapDataConverter<Battery, BatteryMapData> BATTERIES = MapDataConverter.ofConnectable(
+        EquipmentType.BATTERY, Battery.class, Network::getBatteryStream,
+        BATTERY_FIELDS, AllMapData.AllMapDataBuilder::batteries,
+        "batteries", 300);
+
+    static final MapDataConverter<DanglingLine, DanglingLineMapData> DANGLING_LINES = MapDataConverter.ofConnectable(
+        EquipmentType.DANGLING_LINE, DanglingLine.class, Network::getDanglingLineStream,
+        DANGLING_LINE_FIELDS, AllMapData.AllMapDataBuilder::danglingLines,
+        "danglingLines", 350);
+
+    static final MapDataConverter<HvdcLine, HvdcLineMapData> HVDC_LINES = new MapDataConverter<>(
+        EquipmentType.HVDC_LINE, HvdcLine.class, Network::getHvdcLineStream,
+        v -> v.getConnectableStream(HvdcConverterStation.class).map(station -> station.getHvdcLine()),
+        HVDC_LINE_FIELDS, AllMapData.AllMapDataBuilder::hvdcLines,
+        "hvdcLines", 350);
+
+    static final MapDataConverter<LccConverterStation, LccConverterStationMapData> LCC_CONVERTER_STATIONS = MapDataConverter.ofConnectable(
+        EquipmentType.LCC_CONVERTER_STATION, LccConverterStation.class, Network::getLccConverterStationStream,
+        LCC_CONVERTER_STATION_FIELDS, AllMapData.AllMapDataBuilder::lccConverterStations,
+        "lccConverterStations", 300);
+
+    static final MapDataConverter<Load, LoadMapData> LOADS = MapDataConverter.ofConnectable(
+        EquipmentType.LOAD, Load.class, Network::getLoadStream,
+        LOAD_FIELDS, AllMapData.AllMapDataBuilder::loads,
+        "loads", 300);
+
+    static final MapDataConverter<ShuntCompensator, ShuntCompensatorMapData> SHUNT_COMPENSATORS = MapDataConverter.ofConnectable(
+        EquipmentType.SHUNT_COMPENSATOR, ShuntCompensator.class, Network::getShuntCompensatorStream,
+        SHUNT_COMPENSATOR_FIELDS, AllMapData.AllMapDataBuilder::shuntCompensators,
+        "shuntCompensators", 300);
+
+    static final MapDataConverter<StaticVarCompensator, StaticVarCompensatorMapData> STATIC_VAR_COMPENSATORS = MapDataConverter.ofConnectable(
+        EquipmentType.STATIC_VAR_COMPENSATOR, StaticVarCompensator.class, Network::getStaticVarCompensatorStream,
+        STATIC_VAR_COMPENSATOR_FIELDS, AllMapData.AllMapDataBuilder::staticVarCompensators,
+        "staticVarCompensators", 400);
+
+    static final MapDataConverter<VscConverterStation, VscConverterStationMapData> VSC_CONVERTER_STATIONS = MapDataConverter.ofConnectable(
+        EquipmentType.VSC_CONVERTER_STATION, VscConverterStation.class, Network::getVscConverterStationStream,
+        VSC_CONVERTER_STATION_FIELDS, AllMapData.AllMapDataBuilder::vscConverterStations,
+        "vscConverterStations", 350);
+
+    private static final Map<EquipmentType, MapDataConverter<?, ?>> CONVERTERS = new EnumMap<>(EquipmentType.class);
+
+    static {
+        for (MapDataConverter<?, ?> converter : List.of(SUBSTATIONS, LINES, TWO_WINDINGS_TRANSFORMERS, THREE_WINDINGS_TRANSFORMERS,
+            GENERATORS, BATTERIES, DANGLING_LINES, HVDC_LINES, LCC_CONVERTER_STATIONS, LOADS, SHUNT_COMPENSATORS,
+            STATIC_VAR_COMPENSATORS, VSC_CONVERTER_STATIONS)) {
+            CONVERTERS.put(converter.getType(), converter);
+        }
+    }
+
+    static MapDataConverter<?, ?> get(EquipmentType type) {
+        return CONVERTERS.get(type);
+    }
+
+    static Collection<MapDataConverter<?, ?>> getAll() {
+        return CONVERTERS.values();
+    }
+
+    /**
+     * Converter of the given identifiable, {@code null} if it is not an equipment displayed on the map.
+     */
+    static MapDataConverter<?, ?> get(Identifiable<?> identifiable) {
+        return CONVERTERS.values().stream().filter(converter -> converter.isEquipment(identifiable)).findFirst().orElse(null);
+    }
+}
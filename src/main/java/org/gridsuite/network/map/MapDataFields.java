@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.CurrentLimits;
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.TapChanger;
+import com.powsybl.iidm.network.Terminal;
+import org.gridsuite.network.map.model.TapChangerData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Table of the fields of one map data type, each one reading a value from an equipment and writing it to the map data
+ * builder, so that every equipment type is converted by the same loop. Identifier, terminal, current limit and tap
+ * changer fields, shared by most types, are declared by dedicated extractors.
+ *
+ * @param <T> the iidm equipment type
+ * @param <B> the map data builder type
+ * @param <D> the map data type
+ */
+final class MapDataFields<T, B, D> implements Function<T, D> {
+
+    @FunctionalInterface
+    interface Field<T, B> {
+
+        void copy(T equipment, B builder);
+    }
+
+    private final Supplier<B> newBuilder;
+
+    private final Function<B, D> build;
+
+    private final List<Field<T, B>> fields;
+
+    private MapDataFields(Supplier<B> newBuilder, Function<B, D> build, List<Field<T, B>> fields) {
+        this.newBuilder = newBuilder;
+        this.build = build;
+        this.fields = List.copyOf(fields);
+    }
+
+    static <T, B, D> Builder<T, B, D> of(Class<T> equipmentClass, Supplier<B> newBuilder, Function<B, D> build) {
+        return new Builder<>(equipmentClass, newBuilder, build);
+    }
+
+    @Override
+    public D apply(T equipment) {
+        B builder = newBuilder.get();
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).copy(equipment, builder);
+        }
+        return build.apply(builder);
+    }
+
+    static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static TapChangerData toMapData(TapChanger<?, ?> tapChanger) {
+        return TapChangerData.builder()
+            .lowTap(tapChanger.getLowTapPosition())
+            .highTap(tapChanger.getHighTapPosition())
+            .build();
+    }
+
+    static final class Builder<T, B, D> {
+
+        private final Class<T> equipmentClass;
+
+        private final Supplier<B> newBuilder;
+
+        private final Function<B, D> build;
+
+        private final List<Field<T, B>> fields = new ArrayList<>();
+
+        private Builder(Class<T> equipmentClass, Supplier<B> newBuilder, Function<B, D> build) {
+            this.equipmentClass = Objects.requireNonNull(equipmentClass);
+            this.newBuilder = Objects.requireNonNull(newBuilder);
+            this.build = Objects.requireNonNull(build);
+        }
+
+        Builder<T, B, D> field(Field<T, B> field) {
+            fields.add(Objects.requireNonNull(field));
+            return this;
+        }
+
+        <V> Builder<T, B, D> field(Function<T, V> getter, BiConsumer<B, V> setter) {
+            return field((equipment, builder) -> setter.accept(builder, getter.apply(equipment)));
+        }
+
+        /**
+         * Double value, written as {@code null} when not a number.
+         */
+        Builder<T, B, D> nullableField(ToDoubleFunction<T> getter, BiConsumer<B, Double> setter) {
+            return field((equipment, builder) -> setter.accept(builder, nullIfNaN(getter.applyAsDouble(equipment))));
+        }
+
+        Builder<T, B, D> identifiable(BiConsumer<B, String> name, BiConsumer<B, String> id) {
+            if (!Identifiable.class.isAssignableFrom(equipmentClass)) {
+                throw new IllegalArgumentException(equipmentClass.getSimpleName() + " is not an identifiable");
+            }
+            return field((equipment, builder) -> {
+                Identifiable<?> identifiable = (Identifiable<?>) equipment;
+                name.accept(builder, identifiable.getNameOrId());
+                id.accept(builder, identifiable.getId());
+            });
+        }
+
+        /**
+         * Connection, voltage level and flows of a terminal, a {@code null} setter skipping a value that the map data
+         * type does not hold.
+         */
+        Builder<T, B, D> terminal(Function<T, Terminal> getter, BiConsumer<B, Boolean> connected, BiConsumer<B, String> voltageLevelId,
+                                  BiConsumer<B, Double> p, BiConsumer<B, Double> q, BiConsumer<B, Double> i) {
+            Objects.requireNonNull(connected);
+            Objects.requireNonNull(voltageLevelId);
+            return field((equipment, builder) -> {
+                Terminal terminal = getter.apply(equipment);
+                connected.accept(builder, terminal.isConnected());
+                voltageLevelId.accept(builder, terminal.getVoltageLevel().getId());
+                if (p != null) {
+                    p.accept(builder, nullIfNaN(terminal.getP()));
+                }
+                if (q != null) {
+                    q.accept(builder, nullIfNaN(terminal.getQ()));
+                }
+                if (i != null) {
+                    i.accept(builder, nullIfNaN(terminal.getI()));
+                }
+            });
+        }
+
+        Builder<T, B, D> permanentLimit(Function<T, CurrentLimits> getter, BiConsumer<B, Double> setter) {
+            return field((equipment, builder) -> {
+                CurrentLimits limits = getter.apply(equipment);
+                setter.accept(builder, limits != null ? nullIfNaN(limits.getPermanentLimit()) : null);
+            });
+        }
+
+        /**
+         * Tap range and position of a tap changer, both {@code null} when there is none.
+         */
+        Builder<T, B, D> tapChanger(Function<T, TapChanger<?, ?>> getter, BiConsumer<B, TapChangerData> tapChanger, BiConsumer<B, Integer> position) {
+            return field((equipment, builder) -> {
+                TapChanger<?, ?> changer = getter.apply(equipment);
+                tapChanger.accept(builder, changer != null ? toMapData(changer) : null);
+                position.accept(builder, changer != null ? changer.getTapPosition() : null);
+            });
+        }
+
+        MapDataFields<T, B, D> build() {
+            return new MapDataFields<>(newBuilder, build, fields);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.gridsuite.network.map.model.NetworkModificationNotification;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the modified networks, whose cached map data has to be dropped, to all the replicas of the server,
+ * including the publishing one.
+ */
+interface MapDataInvalidationBus {
+
+    void publish(NetworkModificationNotification notification);
+
+    void subscribe(Consumer<NetworkModificationNotification> listener);
+}
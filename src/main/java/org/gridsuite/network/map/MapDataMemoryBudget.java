@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VoltageLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Guards whole network requests against out of memory errors: the heap size of the map data of a request is
+ * estimated from the equipment counts before converting anything, and requests over the budget are either streamed
+ * or rejected.
+ */
+@Component
+class MapDataMemoryBudget {
+
+    /**
+     * Share of the maximum heap size used as budget when none is configured.
+     */
+    private static final int DEFAULT_HEAP_PERCENTAGE = 25;
+
+    private final long maxSize;
+
+    private final boolean streamingFallback;
+
+    MapDataMemoryBudget(@Value("${network-map.memory-budget.max-size:}") DataSize maxSize,
+                        @Value("${network-map.memory-budget.streaming-fallback:true}") boolean streamingFallback) {
+        this.maxSize = maxSize != null ? maxSize.toBytes() : Runtime.getRuntime().maxMemory() / 100 * DEFAULT_HEAP_PERCENTAGE;
+        this.streamingFallback = streamingFallback;
+    }
+
+    static long estimateSize(Network network, Set<EquipmentType> types) {
+        return types.stream().mapToLong(type -> MapDataConverters.get(type).estimateSize(network)).sum();
+    }
+
+    /**
+     * Estimates the size of the map data of the equipments of the voltage levels accepted by the filter, and of their
+     * substations. Branches between two accepted voltage levels are counted twice, the estimate is an upper bound.
+     */
+    static long estimateSize(Network network, Set<EquipmentType> types, Predicate<VoltageLevel> voltageLevelFilter) {
+        List<VoltageLevel> voltageLevels = network.getVoltageLevelStream().filter(voltageLevelFilter).collect(Collectors.toList());
+        return types.stream().mapToLong(type -> {
+            MapDataConverter<?, ?> converter = MapDataConverters.get(type);
+            if (type == EquipmentType.SUBSTATION) {
+                return converter.estimateSize(voltageLevels.stream().map(v -> v.getSubstation().getId()).distinct().count());
+            }
+            return voltageLevels.stream().mapToLong(converter::estimateSize).sum();
+        }).sum();
+    }
+
+    /**
+     * Checks the estimated size of a request against the budget.
+     *
+     * @return {@code true} if the request has to be streamed instead of being built in memory
+     * @throws ResponseStatusException with status 413 if the request is over the budget and cannot be streamed
+     */
+    boolean requiresStreaming(long estimatedSize, boolean streamable) {
+        if (estimatedSize <= maxSize) {
+            return false;
+        }
+        if (streamable && streamingFallback) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Estimated response size of " + estimatedSize
+            + " bytes exceeds the memory budget of " + maxSize + " bytes, filter by substation or equipment type");
+    }
+}
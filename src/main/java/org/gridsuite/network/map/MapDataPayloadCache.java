@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache of serialized map data payloads, which can be shared by several replicas of the server, so that a network
+ * converted by one replica is served by all of them. Payloads are identified by a network and a key naming the
+ * payload kind.
+ */
+interface MapDataPayloadCache {
+
+    Optional<byte[]> get(UUID networkUuid, String key);
+
+    void put(UUID networkUuid, String key, byte[] payload);
+
+    void evict(UUID networkUuid, String key);
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Time spent in each step of a profiled request, and number of converted objects. Like the network it reads, a
+ * request is handled by a single thread, so the profile of the current request is bound to its thread. Recording
+ * methods do nothing when the current request is not profiled. The body of a response may still be written by
+ * another thread when the profile is logged, hence the synchronized accessors.
+ */
+final class MapDataProfile {
+
+    private static final ThreadLocal<MapDataProfile> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+
+    private long serializationStart = -1;
+
+    private MapDataProfile() {
+    }
+
+    static MapDataProfile start() {
+        MapDataProfile profile = new MapDataProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static MapDataProfile current() {
+        return CURRENT.get();
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static <T> T time(String name, Supplier<T> step) {
+        MapDataProfile profile = CURRENT.get();
+        if (profile == null) {
+            return step.get();
+        }
+        long stepStart = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            profile.addDuration(name, System.nanoTime() - stepStart);
+        }
+    }
+
+    static void count(String name, long count) {
+        MapDataProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.addCount(name, count);
+        }
+    }
+
+    synchronized void addCount(String name, long count) {
+        counts.merge(name, count, Long::sum);
+    }
+
+    synchronized void addDuration(String name, long nanos) {
+        durations.merge(name, nanos, Long::sum);
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - start;
+    }
+
+    synchronized void startSerialization(long elapsedNanos) {
+        serializationStart = elapsedNanos;
+    }
+
+    synchronized void endSerialization(long elapsedNanos) {
+        if (serializationStart >= 0) {
+            addDuration("serialization", elapsedNanos - serializationStart);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Durations in the format of the {@code Server-Timing} header.
+     */
+    synchronized String toServerTiming() {
+        return durations.entrySet().stream()
+            .map(e -> String.format(Locale.ROOT, "%s;dur=%.3f", e.getKey(), toMillis(e.getValue())))
+            .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Durations in milliseconds and object counts.
+     */
+    synchronized Map<String, Object> toTrace() {
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("durations", durations.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> toMillis(e.getValue()), (d1, d2) -> d1, LinkedHashMap::new)));
+        trace.put("counts", new LinkedHashMap<>(counts));
+        return trace;
+    }
+}
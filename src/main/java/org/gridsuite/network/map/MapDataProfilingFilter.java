@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Profiles the requests sent with the {@code X-Map-Profile: true} header: the time spent getting the network,
+ * converting and compressing map data is returned in a {@code Server-Timing} header, written before the body. The
+ * whole trace, including the serialization time of the body and the number of converted objects, is logged once the
+ * response is written. Map data streamed by another thread is not profiled, its conversion happens while writing.
+ */
+@Component
+class MapDataProfilingFilter extends OncePerRequestFilter {
+
+    static final String PROFILE_HEADER = "X-Map-Profile";
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String HANDLER_STEP = "handler";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapDataProfilingFilter.class);
+
+    private final ObjectMapper objectMapper;
+
+    MapDataProfilingFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !Boolean.parseBoolean(request.getHeader(PROFILE_HEADER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        MapDataProfile profile = MapDataProfile.start();
+        ProfiledResponse profiledResponse = new ProfiledResponse(response, profile);
+        try {
+            chain.doFilter(request, profiledResponse);
+        } finally {
+            MapDataProfile.stop();
+            long elapsed = profile.getElapsedNanos();
+            if (!request.isAsyncStarted()) {
+                profile.endSerialization(elapsed);
+            }
+            // responses without body
+            profiledResponse.startBody();
+            logTrace(request, profile, elapsed);
+        }
+    }
+
+    private void logTrace(HttpServletRequest request, MapDataProfile profile, long elapsedNanos) {
+        Map<String, Object> trace = profile.toTrace();
+        trace.put("total", elapsedNanos / 1e6);
+        try {
+            String query = request.getQueryString();
+            LOGGER.info("Profile of {} {}: {}", request.getMethod(), request.getRequestURI() + (query != null ? "?" + query : ""),
+                objectMapper.writeValueAsString(trace));
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Cannot write the profile of {}", request.getRequestURI(), e);
+        }
+    }
+
+    /**
+     * Ends the handler step and adds the {@code Server-Timing} header when the body is about to be written: by a
+     * message converter, or by a streamed body, whose output stream is opened before being handed to another thread.
+     */
+    private static final class ProfiledResponse extends HttpServletResponseWrapper {
+
+        private final MapDataProfile profile;
+
+        private boolean bodyStarted;
+
+        private ProfiledResponse(HttpServletResponse response, MapDataProfile profile) {
+            super(response);
+            this.profile = profile;
+        }
+
+        private void startBody() {
+            if (!bodyStarted && !isCommitted()) {
+                bodyStarted = true;
+                long handlerEnd = profile.getElapsedNanos();
+                profile.addDuration(HANDLER_STEP, handlerEnd);
+                setHeader(SERVER_TIMING_HEADER, profile.toServerTiming());
+                profile.startSerialization(handlerEnd);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            startBody();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            startBody();
+            return super.getWriter();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.HvdcConverterStation;
+import com.powsybl.iidm.network.Line;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.Terminal;
+import org.gridsuite.network.map.model.AllMapData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the map data of whole networks as slices, one per substation, holding the substation and the equipments
+ * connected to its voltage levels. Editing a substation only drops its slice and the slices of the substations at the
+ * other end of its lines and HVDC lines, whose map data hold values of both sides; whole network map data is then
+ * reassembled from the cached slices, only converting the dropped ones again.
+ */
+@Component
+class MapDataSliceCache {
+
+    private static final Set<EquipmentType> ALL_TYPES = EnumSet.allOf(EquipmentType.class);
+
+    private static final class Slice {
+
+        private final Map<EquipmentType, List<?>> mapData;
+
+        /**
+         * Substations at the other end of the lines and HVDC lines of the slice.
+         */
+        private final Set<String> neighbors;
+
+        private Slice(Map<EquipmentType, List<?>> mapData, Set<String> neighbors) {
+            this.mapData = mapData;
+            this.neighbors = neighbors;
+        }
+    }
+
+    private static final class NetworkSlices {
+
+        private final Map<String, Slice> slices = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented by each invalidation, so that slices converted before it are not stored after it.
+         */
+        private long generation;
+
+        private synchronized long getGeneration() {
+            return generation;
+        }
+
+        private synchronized void put(String substationId, Slice slice, long convertedGeneration) {
+            if (convertedGeneration == generation) {
+                slices.put(substationId, slice);
+            }
+        }
+
+        private synchronized void invalidate(Set<String> substationIds) {
+            generation++;
+            Set<String> dropped = new HashSet<>(substationIds);
+            for (String substationId : substationIds) {
+                Slice slice = slices.get(substationId);
+                if (slice != null) {
+                    dropped.addAll(slice.neighbors);
+                }
+            }
+            slices.entrySet().removeIf(e -> dropped.contains(e.getKey()) || !Collections.disjoint(e.getValue().neighbors, substationIds));
+        }
+    }
+
+    private final boolean enabled;
+
+    private final int maxNetworks;
+
+    private final Map<UUID, NetworkSlices> networks = new LinkedHashMap<>(16, 0.75f, true);
+
+    MapDataSliceCache(@Value("${network-map.slice-cache.enabled:false}") boolean enabled,
+                      @Value("${network-map.slice-cache.max-networks:10}") int maxNetworks) {
+        this.enabled = enabled;
+        this.maxNetworks = maxNetworks;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private synchronized NetworkSlices getNetworkSlices(UUID networkUuid) {
+        NetworkSlices networkSlices = networks.computeIfAbsent(networkUuid, uuid -> new NetworkSlices());
+        Iterator<UUID> it = networks.keySet().iterator();
+        while (networks.size() > maxNetworks && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        return networkSlices;
+    }
+
+    private static String getSubstationId(Terminal terminal) {
+        return terminal.getVoltageLevel().getSubstation().getId();
+    }
+
+    private static Set<String> getNeighbors(Substation substation) {
+        Set<String> neighbors = new HashSet<>();
+        substation.getVoltageLevelStream().forEach(voltageLevel -> {
+            voltageLevel.getConnectableStream(Line.class).forEach(line -> {
+                neighbors.add(getSubstationId(line.getTerminal1()));
+                neighbors.add(getSubstationId(line.getTerminal2()));
+            });
+            voltageLevel.getConnectableStream(HvdcConverterStation.class)
+                .map(station -> station.getHvdcLine())
+                .filter(Objects::nonNull)
+                .forEach(hvdcLine -> {
+                    neighbors.add(getSubstationId(hvdcLine.getConverterStation1().getTerminal()));
+                    neighbors.add(getSubstationId(hvdcLine.getConverterStation2().getTerminal()));
+                });
+        });
+        neighbors.remove(substation.getId());
+        return neighbors;
+    }
+
+    private static Slice convert(Network network, Substation substation) {
+        // shared by concurrent requests, so the slice cannot be modified once converted
+        Map<EquipmentType, List<?>> mapData = MapDataTraversal.of(ALL_TYPES).traverse(network, List.of(substation.getId())).getMapData();
+        return new Slice(Collections.unmodifiableMap(mapData), Collections.unmodifiableSet(getNeighbors(substation)));
+    }
+
+    /**
+     * Map data of the given equipment types of the whole network, reassembled from the slices of its substations.
+     */
+    AllMapData getMapData(UUID networkUuid, Network network, Set<EquipmentType> types) {
+        NetworkSlices networkSlices = getNetworkSlices(networkUuid);
+        long generation = networkSlices.getGeneration();
+        Map<EquipmentType, MapDataConverter<?, ?>.Sink> sinks = new EnumMap<>(EquipmentType.class);
+        types.forEach(type -> sinks.put(type, MapDataConverters.get(type).newSink()));
+        network.getSubstationStream().forEach(substation -> {
+            Slice slice = networkSlices.slices.get(substation.getId());
+            if (slice == null) {
+                slice = MapDataProfile.time("slice-conversion", () -> convert(network, substation));
+                MapDataProfile.count("converted-slices", 1);
+                networkSlices.put(substation.getId(), slice, generation);
+            }
+            Slice converted = slice;
+            sinks.forEach((type, sink) -> sink.addMapData(converted.mapData.get(type)));
+        });
+        AllMapData.AllMapDataBuilder builder = AllMapData.builder();
+        sinks.values().forEach(sink -> sink.setMapData(builder));
+        return builder.build();
+    }
+
+    /**
+     * Drops the slices of the given substations and of their neighbors, or all the slices of the network when no
+     * substation is given.
+     */
+    void invalidate(UUID networkUuid, Set<String> substationIds) {
+        NetworkSlices networkSlices;
+        synchronized (this) {
+            networkSlices = substationIds == null ? networks.remove(networkUuid) : networks.get(networkUuid);
+        }
+        if (networkSlices != null && substationIds != null) {
+            networkSlices.invalidate(substationIds);
+        }
+    }
+}
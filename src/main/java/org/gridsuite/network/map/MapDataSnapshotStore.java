@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Optional store keeping the gzip compressed JSON of whole network map data as files under a local directory, so
+ * that large payloads live outside of the heap, are copied to the response by the file channel, and survive
+ * restarts. Disabled when no directory is configured.
+ * <p>
+ * Snapshots are keyed by network UUID and by a content version built from the map data format version, from the
+ * network case date and forecast distance, and from the number of modifications notified for the network, so that a
+ * snapshot is only reused if both the payload format and the network are unchanged. Existing snapshots are indexed on first access, and the
+ * least recently used ones are removed when the directory grows over its maximum size. Snapshots are handed out as
+ * open channels, which stay readable when the file is replaced or removed before the response is written.
+ */
+@Component
+class MapDataSnapshotStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapDataSnapshotStore.class);
+
+    /**
+     * To be incremented whenever the JSON layout of {@link org.gridsuite.network.map.model.AllMapData} changes.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final String SNAPSHOT_EXTENSION = ".json.gz";
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("([0-9a-f-]{36})\\.([\\w-]+)" + Pattern.quote(SNAPSHOT_EXTENSION));
+
+    private static final class Snapshot {
+
+        private final Path path;
+
+        private final String version;
+
+        private final long size;
+
+        private volatile long lastAccess;
+
+        private Snapshot(Path path, String version, long size, long lastAccess) {
+            this.path = path;
+            this.version = version;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final Path directory;
+
+    private final Duration timeToLive;
+
+    private final long maxSize;
+
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    private volatile boolean indexed;
+
+    MapDataSnapshotStore(@Value("${network-map.snapshot.directory:}") String directory,
+                         @Value("${network-map.snapshot.time-to-live:PT1H}") Duration timeToLive,
+                         @Value("${network-map.snapshot.max-size:10GB}") DataSize maxSize) {
+        this.directory = directory.isEmpty() ? null : Path.of(directory);
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize.toBytes();
+        if (this.directory != null) {
+            try {
+                Files.createDirectories(this.directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            LOGGER.info("Map data snapshots stored in {}", this.directory);
+        }
+    }
+
+    boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Content version of the snapshot of the given network. It changes whenever the snapshot of the network is removed,
+     * so that a snapshot converted from the network before a modification is never served after it.
+     */
+    String getVersion(UUID networkUuid, Network network) {
+        return FORMAT_VERSION + "-" + network.getCaseDate().getMillis() + "-" + network.getForecastDistance()
+            + "-" + generations.getOrDefault(networkUuid, 0L);
+    }
+
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        synchronized (this) {
+            if (indexed) {
+                return;
+            }
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+                for (Path path : paths) {
+                    Matcher matcher = SNAPSHOT_NAME.matcher(path.getFileName().toString());
+                    if (matcher.matches()) {
+                        long lastModified = Files.getLastModifiedTime(path).toMillis();
+                        UUID networkUuid = UUID.fromString(matcher.group(1));
+                        Snapshot found = new Snapshot(path, matcher.group(2), Files.size(path), lastModified);
+                        Snapshot previous = snapshots.get(networkUuid);
+                        // only the most recent snapshot of a network is kept, others would escape the size accounting
+                        if (previous == null || found.lastAccess > previous.lastAccess) {
+                            snapshots.put(networkUuid, found);
+                            if (previous != null) {
+                                delete(previous);
+                            }
+                        } else {
+                            delete(found);
+                        }
+                    } else {
+                        // left over by an interrupted write
+                        Files.deleteIfExists(path);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            LOGGER.info("{} map data snapshots found in {}", snapshots.size(), directory);
+            indexed = true;
+        }
+    }
+
+    /**
+     * Snapshot of the given network content version, if one has been written less than the time to live ago.
+     */
+    Optional<Path> get(UUID networkUuid, String version) {
+        index();
+        Snapshot snapshot = snapshots.get(networkUuid);
+        if (snapshot == null || !snapshot.version.equals(version)) {
+            return Optional.empty();
+        }
+        try {
+            if (Files.getLastModifiedTime(snapshot.path).toInstant().plus(timeToLive).isAfter(Instant.now())) {
+                snapshot.lastAccess = System.currentTimeMillis();
+                return Optional.of(snapshot.path);
+            }
+        } catch (IOException e) {
+            // the snapshot has been replaced or removed concurrently, it is simply computed again
+            LOGGER.debug("Snapshot {} not readable", snapshot.path, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Opens the snapshot of the given network content version, if one has been written less than the time to live ago
+     * and has not been removed since.
+     */
+    Optional<FileChannel> open(UUID networkUuid, String version) {
+        return get(networkUuid, version).flatMap(path -> {
+            try {
+                return Optional.of(FileChannel.open(path, StandardOpenOption.READ));
+            } catch (IOException e) {
+                LOGGER.debug("Snapshot {} not readable", path, e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Writes the snapshot of the given network content version, replacing the one of any previous version, and opens
+     * it. The file is written aside and then moved, so that readers never see a partially written snapshot.
+     */
+    FileChannel put(UUID networkUuid, String version, byte[] gzipJson) {
+        index();
+        Path path = directory.resolve(networkUuid + "." + version + SNAPSHOT_EXTENSION);
+        FileChannel channel;
+        try {
+            Path tmpPath = Files.createTempFile(directory, networkUuid.toString(), ".tmp");
+            Files.write(tmpPath, gzipJson);
+            // opened before being moved, so that it cannot be removed in between
+            channel = FileChannel.open(tmpPath, StandardOpenOption.READ);
+            try {
+                Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Snapshot previous = snapshots.put(networkUuid, new Snapshot(path, version, gzipJson.length, System.currentTimeMillis()));
+        if (previous != null && !previous.path.equals(path)) {
+            delete(previous);
+        }
+        evict(networkUuid);
+        return channel;
+    }
+
+    /**
+     * Removes the snapshot of the given network, whatever its version, and changes the version of the next one.
+     */
+    void remove(UUID networkUuid) {
+        if (!isEnabled()) {
+            return;
+        }
+        generations.merge(networkUuid, 1L, Long::sum);
+        index();
+        Snapshot snapshot = snapshots.remove(networkUuid);
+        if (snapshot != null) {
+            delete(snapshot);
+        }
+    }
+
+    private void delete(Snapshot snapshot) {
+        try {
+            Files.deleteIfExists(snapshot.path);
+        } catch (IOException e) {
+            LOGGER.warn("Snapshot {} could not be removed", snapshot.path, e);
+        }
+    }
+
+    private synchronized void evict(UUID keptNetworkUuid) {
+        long size = snapshots.values().stream().mapToLong(s -> s.size).sum();
+        while (size > maxSize) {
+            Optional<Map.Entry<UUID, Snapshot>> lru = snapshots.entrySet().stream()
+                .filter(e -> !e.getKey().equals(keptNetworkUuid))
+                .min(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            if (lru.isEmpty()) {
+                break;
+            }
+            snapshots.remove(lru.get().getKey());
+            delete(lru.get().getValue());
+            size -= lru.get().getValue().size;
+        }
+    }
+
+    /**
+     * Copies an open snapshot to the output stream and closes it, letting the file channel transfer the bytes without
+     * going through the heap when the target allows it.
+     */
+    static void transferTo(FileChannel snapshot, OutputStream out) throws IOException {
+        try (FileChannel channel = snapshot) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+}
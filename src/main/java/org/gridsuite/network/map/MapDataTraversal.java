@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.VoltageLevel;
+import org.gridsuite.network.map.model.AllMapData;
+import org.gridsuite.network.map.model.SubstationMapData;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Walks the substations and voltage levels of a network once and fans each voltage level out to the sinks of the
+ * requested equipment types, so that asking for several types costs a single traversal.
+ */
+final class MapDataTraversal {
+
+    private MapDataConverter<Substation, SubstationMapData>.Sink substationSink;
+
+    private final List<MapDataConverter<?, ?>.Sink> voltageLevelSinks = new ArrayList<>();
+
+    private MapDataTraversal() {
+    }
+
+    /**
+     * Traversal collecting the given equipment types.
+     */
+    static MapDataTraversal of(Iterable<EquipmentType> types) {
+        MapDataTraversal traversal = new MapDataTraversal();
+        for (EquipmentType type : types) {
+            if (type == EquipmentType.SUBSTATION) {
+                traversal.substationSink = MapDataConverters.SUBSTATIONS.newSink();
+            } else {
+                traversal.voltageLevelSinks.add(MapDataConverters.get(type).newSink());
+            }
+        }
+        return traversal;
+    }
+
+    /**
+     * Map data of a single equipment type found in the given substations.
+     */
+    static <D> List<D> getMapData(MapDataConverter<?, D> converter, Network network, List<String> substationsId) {
+        MapDataConverter<?, D>.Sink sink = converter.newSink();
+        MapDataTraversal traversal = new MapDataTraversal();
+        traversal.voltageLevelSinks.add(sink);
+        traversal.traverse(network, substationsId);
+        return sink.getMapData();
+    }
+
+    MapDataTraversal traverse(Network network, List<String> substationsId) {
+        return traverse(network, substationsId, null);
+    }
+
+    /**
+     * Traverses the given substations, only visiting the voltage levels accepted by the filter if there is one.
+     * Substations without any accepted voltage level are then left out.
+     */
+    MapDataTraversal traverse(Network network, List<String> substationsId, Predicate<VoltageLevel> voltageLevelFilter) {
+        return MapDataProfile.time("traversal", () -> traverseSubstations(network, substationsId, voltageLevelFilter));
+    }
+
+    private MapDataTraversal traverseSubstations(Network network, List<String> substationsId, Predicate<VoltageLevel> voltageLevelFilter) {
+        for (String substationId : substationsId) {
+            Substation substation = network.getSubstation(substationId);
+            List<VoltageLevel> voltageLevels = substation.getVoltageLevelStream()
+                .filter(voltageLevelFilter != null ? voltageLevelFilter : v -> true)
+                .collect(Collectors.toList());
+            if (substationSink != null && (voltageLevelFilter == null || !voltageLevels.isEmpty())) {
+                substationSink.add(substation);
+            }
+            if (!voltageLevelSinks.isEmpty()) {
+                for (VoltageLevel voltageLevel : voltageLevels) {
+                    voltageLevelSinks.forEach(sink -> sink.accept(voltageLevel));
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Collected map data of each traversed equipment type.
+     */
+    Map<EquipmentType, List<?>> getMapData() {
+        Map<EquipmentType, List<?>> mapData = new EnumMap<>(EquipmentType.class);
+        if (substationSink != null) {
+            mapData.put(EquipmentType.SUBSTATION, substationSink.getMapData());
+        }
+        voltageLevelSinks.forEach(sink -> mapData.put(sink.getType(), sink.getMapData()));
+        return mapData;
+    }
+
+    void setMapData(AllMapData.AllMapDataBuilder builder) {
+        if (substationSink != null) {
+            substationSink.setMapData(builder);
+        }
+        voltageLevelSinks.forEach(sink -> sink.setMapData(builder));
+    }
+}
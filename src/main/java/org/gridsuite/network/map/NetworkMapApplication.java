@@ -8,15 +8,22 @@ package org.gridsuite.network.map;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 @SuppressWarnings("checkstyle:HideUtilityClassConstructor")
 @SpringBootApplication
+@EnableCaching
 public class NetworkMapApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(NetworkMapApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(NetworkMapApplication.class, args);
+        // training run of the class data sharing archive: exits once the classes needed to start have been loaded
+        if (context.getEnvironment().getProperty("network-map.startup.training-run", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
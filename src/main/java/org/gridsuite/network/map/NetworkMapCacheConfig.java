@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Bounds the cache of whole network payloads by their size in bytes rather than by their number, as a few payloads of
+ * large networks may already weigh hundreds of megabytes.
+ */
+@Configuration
+class NetworkMapCacheConfig {
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> allGzipCacheCustomizer(@Value("${network-map.all-gzip-cache.max-size:256MB}") DataSize maxSize,
+                                                                        @Value("${network-map.all-gzip-cache.time-to-live:PT60S}") Duration timeToLive) {
+        return cacheManager -> cacheManager.registerCustomCache(NetworkMapService.ALL_GZIP_CACHE, Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Object key, Object payload) -> payload instanceof byte[] ? ((byte[]) payload).length : 1)
+            .expireAfterWrite(timeToLive)
+            .build());
+    }
+}
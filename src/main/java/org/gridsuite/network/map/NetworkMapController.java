@@ -6,9 +6,15 @@
  */
 package org.gridsuite.network.map;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gridsuite.network.map.model.AggregatesMapData;
 import org.gridsuite.network.map.model.AllMapData;
 import org.gridsuite.network.map.model.BatteryMapData;
+import org.gridsuite.network.map.model.BranchLoadingMapData;
 import org.gridsuite.network.map.model.DanglingLineMapData;
+import org.gridsuite.network.map.model.DictionaryEncodedMapData;
+import org.gridsuite.network.map.model.FlowHistoryMapData;
 import org.gridsuite.network.map.model.GeneratorMapData;
 import org.gridsuite.network.map.model.HvdcLineMapData;
 import org.gridsuite.network.map.model.LccConverterStationMapData;
@@ -16,6 +22,7 @@ import org.gridsuite.network.map.model.LineMapData;
 import org.gridsuite.network.map.model.LoadMapData;
 import org.gridsuite.network.map.model.ShuntCompensatorMapData;
 import org.gridsuite.network.map.model.StaticVarCompensatorMapData;
+import org.gridsuite.network.map.model.SubstationClusterMapData;
 import org.gridsuite.network.map.model.SubstationMapData;
 import io.swagger.annotations.*;
 import org.gridsuite.network.map.model.ThreeWindingsTransformerMapData;
@@ -23,12 +30,27 @@ import org.gridsuite.network.map.model.TwoWindingsTransformerMapData;
 import org.gridsuite.network.map.model.VscConverterStationMapData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -42,9 +64,18 @@ public class NetworkMapController {
 
     public static final String API_VERSION = "v1";
 
+    private static final int NDJSON_FLUSH_SIZE = 1000;
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static final String ANY_ENCODING = "*";
+
     @Autowired
     private NetworkMapService networkMapService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping(value = "/substations/{networkUuid}", produces = APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Get substations description", response = List.class)
     @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations description")})
@@ -85,12 +116,191 @@ public class NetworkMapController {
         return networkMapService.getThreeWindingsTransformers(networkUuid, substationsIds);
     }
 
+    private static double getQuality(String[] codingAndParameters) {
+        for (int i = 1; i < codingAndParameters.length; i++) {
+            String parameter = codingAndParameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Whether the given {@code Accept-Encoding} header accepts gzip, explicitly or through the wildcard, with a non
+     * zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double anyQuality = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] codingAndParameters = entry.split(";");
+            String coding = codingAndParameters[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(GZIP_ENCODING)) {
+                gzipQuality = getQuality(codingAndParameters);
+            } else if (coding.equals(ANY_ENCODING)) {
+                anyQuality = getQuality(codingAndParameters);
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+    }
+
     @GetMapping(value = "/all/{networkUuid}", produces = APPLICATION_JSON_VALUE)
-    @ApiOperation(value = "Get all equipments descriptions", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get all equipments descriptions", produces = APPLICATION_JSON_VALUE, response = AllMapData.class)
     @ApiResponses(value = {@ApiResponse(code = 200, message = "all equipments descriptions")})
-    public @ResponseBody AllMapData getAll(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
-                                                 @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
-        return networkMapService.getAll(networkUuid, substationsIds);
+    public ResponseEntity<?> getAll(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                    @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds,
+                                    @ApiParam(value = "Equipment types, all of them if not set") @RequestParam(name = "types", required = false) Set<EquipmentType> types,
+                                    @ApiParam(value = "Minimum nominal voltage of the voltage levels") @RequestParam(name = "minNominalVoltage", required = false) Double minNominalVoltage,
+                                    @ApiParam(value = "Write voltage level ids and country names as indexes in shared tables") @RequestParam(name = "dictionary", defaultValue = "false") boolean dictionary,
+                                    @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                    HttpServletResponse response) throws IOException {
+        if (types != null || minNominalVoltage != null) {
+            Object mapData = networkMapService.getMapData(networkUuid, substationsIds, types != null ? types : EnumSet.allOf(EquipmentType.class), minNominalVoltage);
+            return ResponseEntity.ok(dictionary ? new DictionaryEncodedMapData(mapData) : mapData);
+        }
+        if (dictionary) {
+            return ResponseEntity.ok(new DictionaryEncodedMapData(networkMapService.getAll(networkUuid, substationsIds)));
+        }
+        // the whole network payload is cached already compressed, so serve it as is to clients accepting gzip
+        if (substationsIds == null && acceptsGzip(acceptEncoding)) {
+            if (networkMapService.isSnapshotEnabled()) {
+                FileChannel snapshot = networkMapService.getAllSnapshot(networkUuid);
+                return writeGzipJson(response, out -> MapDataSnapshotStore.transferTo(snapshot, out));
+            }
+            byte[] payload = networkMapService.getAllAsGzipJson(networkUuid);
+            if (NetworkMapService.isStreamed(payload)) {
+                // over the memory budget, compressed while being converted instead of being kept in memory
+                return writeGzipJson(response, out -> networkMapService.writeAllAsGzipJson(networkUuid, out));
+            }
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(payload);
+        }
+        if (substationsIds == null) {
+            return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(networkMapService.getAll(networkUuid, null));
+        }
+        return ResponseEntity.ok(networkMapService.getAll(networkUuid, substationsIds));
+    }
+
+    /**
+     * Writes a gzip compressed JSON body straight to the response: a {@link StreamingResponseBody} nested in a
+     * {@code ResponseEntity<?>} would not be recognized by Spring MVC and would be serialized as a JSON object.
+     */
+    private static ResponseEntity<?> writeGzipJson(HttpServletResponse response, StreamingResponseBody body) throws IOException {
+        response.setContentType(APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        body.writeTo(response.getOutputStream());
+        // already written, nothing left for Spring MVC to render
+        return null;
+    }
+
+    @GetMapping(value = "/map-data/{networkUuid}", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the descriptions of the selected equipment types", produces = APPLICATION_JSON_VALUE, response = AllMapData.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "selected equipments descriptions")})
+    public @ResponseBody Object getMapData(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                               @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds,
+                                               @ApiParam(value = "Equipment types") @RequestParam(name = "types") Set<EquipmentType> types,
+                                               @ApiParam(value = "Minimum nominal voltage of the voltage levels") @RequestParam(name = "minNominalVoltage", required = false) Double minNominalVoltage) {
+        return networkMapService.getMapData(networkUuid, substationsIds, types, minNominalVoltage);
+    }
+
+    @GetMapping(value = "/equipments/{networkUuid}", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get equipments descriptions by id", produces = APPLICATION_JSON_VALUE, response = AllMapData.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "equipments descriptions")})
+    public @ResponseBody AllMapData getEquipments(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                  @ApiParam(value = "Equipments id") @RequestParam(name = "id") List<String> equipmentsIds) {
+        return networkMapService.getEquipments(networkUuid, equipmentsIds);
+    }
+
+    @GetMapping(value = "/aggregates/{networkUuid}", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get power balances by substation, voltage level, country and nominal voltage", produces = APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Power balances")})
+    public @ResponseBody AggregatesMapData getAggregates(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid) {
+        return networkMapService.getAggregates(networkUuid);
+    }
+
+    @GetMapping(value = "/clusters/{networkUuid}", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get substation clusters for low zoom levels", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substation clusters by country and highest nominal voltage")})
+    public @ResponseBody List<SubstationClusterMapData> getClusters(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                    @ApiParam(value = "Cluster level") @RequestParam(name = "level", defaultValue = "NOMINAL_VOLTAGE") ClusterLevel level,
+                                                                    @ApiParam(value = "List the substation ids of each cluster") @RequestParam(name = "withSubstationIds", defaultValue = "false") boolean withSubstationIds) {
+        return networkMapService.getClusters(networkUuid, level, withSubstationIds);
+    }
+
+    @PostMapping(value = "/history/{networkUuid}")
+    @ApiOperation(value = "Capture the current branch flows and tap positions into the history of the network")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Branch flows captured")})
+    public ResponseEntity<Void> captureFlowHistory(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid) {
+        networkMapService.captureFlowHistory(networkUuid);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping(value = "/history/{networkUuid}/lines", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the captured line flows of a network", produces = APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Line flows, one value per capture date")})
+    public @ResponseBody FlowHistoryMapData getLinesFlowHistory(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                @ApiParam(value = "First capture date") @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                @ApiParam(value = "Last capture date") @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return networkMapService.getLinesFlowHistory(networkUuid, from, to);
+    }
+
+    @GetMapping(value = "/history/{networkUuid}/2-windings-transformers", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the captured flows and tap positions of the 2 windings transformers of a network", produces = APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "2 windings transformer flows and tap positions, one value per capture date")})
+    public @ResponseBody FlowHistoryMapData getTwoWindingsTransformersFlowHistory(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                                  @ApiParam(value = "First capture date") @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                                  @ApiParam(value = "Last capture date") @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return networkMapService.getTwoWindingsTransformersFlowHistory(networkUuid, from, to);
+    }
+
+    @GetMapping(value = "/history/{networkUuid}/3-windings-transformers", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the captured flows and tap positions of the 3 windings transformers of a network", produces = APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "3 windings transformer flows and tap positions, one value per capture date")})
+    public @ResponseBody FlowHistoryMapData getThreeWindingsTransformersFlowHistory(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                                    @ApiParam(value = "First capture date") @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                                    @ApiParam(value = "Last capture date") @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return networkMapService.getThreeWindingsTransformersFlowHistory(networkUuid, from, to);
+    }
+
+    @DeleteMapping(value = "/history/{networkUuid}")
+    @ApiOperation(value = "Delete the captured branch flows of a network")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Branch flows deleted")})
+    public ResponseEntity<Void> deleteFlowHistory(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid) {
+        networkMapService.deleteFlowHistory(networkUuid);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping(value = "/invalidations/{networkUuid}")
+    @ApiOperation(value = "Notify that a network has been modified, dropping its cached map data")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Cached map data dropped")})
+    public ResponseEntity<Void> invalidate(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                           @ApiParam(value = "Types of the modified equipments, all of them if empty") @RequestParam(name = "types", required = false) Set<EquipmentType> types,
+                                           @ApiParam(value = "Edited substations, the whole network if empty") @RequestParam(name = "substationId", required = false) Set<String> substationsId) {
+        networkMapService.invalidate(networkUuid, types, substationsId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping(value = "/loadings/{networkUuid}", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the most loaded lines and transformers", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Branch loadings, most loaded first")})
+    public @ResponseBody List<BranchLoadingMapData> getBranchLoadings(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                      @ApiParam(value = "Maximum number of branches") @RequestParam(name = "top", defaultValue = "100") int top,
+                                                                      @ApiParam(value = "Minimum loading ratio") @RequestParam(name = "threshold", defaultValue = "0") double threshold) {
+        return networkMapService.getBranchLoadings(networkUuid, top, threshold);
     }
 
     @GetMapping(value = "/batteries/{networkUuid}", produces = APPLICATION_JSON_VALUE)
@@ -156,4 +366,127 @@ public class NetworkMapController {
                                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
         return networkMapService.getVscConverterStations(networkUuid, substationsIds);
     }
+
+    @GetMapping(value = "/substations/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream substations description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations description")})
+    public ResponseEntity<StreamingResponseBody> getSubstationsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getSubstationsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/lines/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream lines description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines description")})
+    public ResponseEntity<StreamingResponseBody> getLinesAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getLinesStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/generators/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream generators description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Generators description")})
+    public ResponseEntity<StreamingResponseBody> getGeneratorsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getGeneratorsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/2-windings-transformers/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream 2 windings transformers description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "2 windings transformers description")})
+    public ResponseEntity<StreamingResponseBody> getTwoWindingsTransformersAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getTwoWindingsTransformersStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/3-windings-transformers/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream 3 windings transformers description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "3 windings transformers description")})
+    public ResponseEntity<StreamingResponseBody> getThreeWindingsTransformersAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getThreeWindingsTransformersStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/batteries/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream batteries description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Batteries description")})
+    public ResponseEntity<StreamingResponseBody> getBatteriesAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getBatteriesStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/dangling-lines/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream dangling lines description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Dangling lines description")})
+    public ResponseEntity<StreamingResponseBody> getDanglingLinesAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getDanglingLinesStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/hvdc-lines/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream hvdc lines description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Hvdc lines description")})
+    public ResponseEntity<StreamingResponseBody> getHvdcLinesAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getHvdcLinesStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/lcc-converter-stations/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream lcc converter stations description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lcc converter stations description")})
+    public ResponseEntity<StreamingResponseBody> getLccConverterStationsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getLccConverterStationsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/loads/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream loads description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Loads description")})
+    public ResponseEntity<StreamingResponseBody> getLoadsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getLoadsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/shunt-compensators/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream shunt compensators description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Shunt compensators description")})
+    public ResponseEntity<StreamingResponseBody> getShuntCompensatorsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getShuntCompensatorsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/static-var-compensators/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream static var compensators description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Static var compensators description")})
+    public ResponseEntity<StreamingResponseBody> getStaticVarCompensatorsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getStaticVarCompensatorsStream(networkUuid, substationsIds));
+    }
+
+    @GetMapping(value = "/vsc-converter-stations/{networkUuid}", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Stream vsc converter stations description, one per line", produces = APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Vsc converter stations description")})
+    public ResponseEntity<StreamingResponseBody> getVscConverterStationsAsNdjson(@ApiParam(value = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+                                                                   @ApiParam(value = "Substations id") @RequestParam(name = "substationId", required = false) List<String> substationsIds) {
+        return toNdjson(networkMapService.getVscConverterStationsStream(networkUuid, substationsIds));
+    }
+
+    private ResponseEntity<StreamingResponseBody> toNdjson(Stream<?> mapData) {
+        StreamingResponseBody body = outputStream -> {
+            try (mapData; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                int count = 0;
+                Iterator<?> it = mapData.iterator();
+                while (it.hasNext()) {
+                    generator.writeObject(it.next());
+                    generator.writeRaw('\n');
+                    if (++count % NDJSON_FLUSH_SIZE == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -10,696 +10,399 @@ import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.*;
 import com.powsybl.network.store.client.NetworkStoreService;
 import com.powsybl.network.store.client.PreloadingStrategy;
-import com.powsybl.sld.iidm.extensions.BranchStatus;
 import org.gridsuite.network.map.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
+ * Concurrency model: a network is opened for each request and only read by the thread handling it, because network
+ * reads are not thread safe, both in the network store client whose collections are loaded lazily and in the in
+ * memory implementation whose bus views are computed lazily. What is shared between requests is converted map
+ * data, cached or stored in snapshots, which is immutable once built.
+ *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  * @author Franck Lecuyer <franck.lecuyer at rte-france.com>
  */
-@ComponentScan(basePackageClasses = {NetworkStoreService.class})
+@Import(NetworkStoreService.class)
 @Service
 class NetworkMapService {
 
+    static final String AGGREGATES_CACHE = "aggregates";
+
+    static final String ALL_GZIP_CACHE = "all-gzip";
+
+    static final String CLUSTERS_CACHE = "clusters";
+
     @Autowired
     private NetworkStoreService networkStoreService;
 
+    @Autowired
+    private MapDataCompressor mapDataCompressor;
+
+    @Autowired
+    private MapDataSnapshotStore snapshotStore;
+
+    @Autowired
+    private MapDataConversionLimiter conversionLimiter;
+
+    @Autowired
+    private MapDataMemoryBudget memoryBudget;
+
+    @Autowired
+    private FlowHistoryStore flowHistoryStore;
+
+    @Autowired
+    private Optional<MapDataPayloadCache> payloadCache;
+
+    @Autowired
+    private MapDataCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private MapDataSliceCache sliceCache;
+
+    @Value("${network-map.preloading.collection-threshold:50}")
+    private int collectionPreloadingThreshold;
+
+    /**
+     * Whole collections are loaded at once for whole network requests and for filters over many substations, while
+     * filters over a few substations only load their equipments, one voltage level at a time.
+     */
+    private PreloadingStrategy getPreloadingStrategy(List<String> substationsId) {
+        return substationsId == null || substationsId.size() > collectionPreloadingThreshold ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE;
+    }
+
     private Network getNetwork(UUID networkUuid, PreloadingStrategy strategy) {
         try {
-            return networkStoreService.getNetwork(networkUuid, strategy);
+            return MapDataProfile.time("network", () -> networkStoreService.getNetwork(networkUuid, strategy));
         } catch (PowsyblException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Network '" + networkUuid + "' not found");
         }
     }
 
-    private static VoltageLevelMapData toMapData(VoltageLevel voltageLevel) {
-        return VoltageLevelMapData.builder()
-            .name(voltageLevel.getNameOrId())
-            .id(voltageLevel.getId())
-            .nominalVoltage(voltageLevel.getNominalV())
-            .build();
-    }
-
-    private static SubstationMapData toMapData(Substation substation) {
-        return SubstationMapData.builder()
-            .name(substation.getNameOrId())
-            .id(substation.getId())
-            .countryName(substation.getCountry().map(Country::getName).orElse(null))
-            .voltageLevels(substation.getVoltageLevelStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-            .build();
-    }
-
-    private static LineMapData toMapData(Line line) {
-        Terminal terminal1 = line.getTerminal1();
-        Terminal terminal2 = line.getTerminal2();
-        LineMapData.LineMapDataBuilder builder = LineMapData.builder()
-            .name(line.getNameOrId())
-            .id(line.getId())
-            .terminal1Connected(terminal1.isConnected())
-            .terminal2Connected(terminal2.isConnected())
-            .voltageLevelId1(terminal1.getVoltageLevel().getId())
-            .voltageLevelId2(terminal2.getVoltageLevel().getId());
-        if (!Double.isNaN(terminal1.getP())) {
-            builder.p1(terminal1.getP());
-        }
-        if (!Double.isNaN(terminal1.getQ())) {
-            builder.q1(terminal1.getQ());
-        }
-        if (!Double.isNaN(terminal2.getP())) {
-            builder.p2(terminal2.getP());
-        }
-        if (!Double.isNaN(terminal2.getQ())) {
-            builder.q2(terminal2.getQ());
-        }
-        if (!Double.isNaN(terminal1.getI())) {
-            builder.i1(terminal1.getI());
-        }
-        if (!Double.isNaN(terminal2.getI())) {
-            builder.i2(terminal2.getI());
-        }
-        CurrentLimits limits1 = line.getCurrentLimits1();
-        CurrentLimits limits2 = line.getCurrentLimits2();
-
-        if (limits1 != null && !Double.isNaN(limits1.getPermanentLimit())) {
-            builder.permanentLimit1(limits1.getPermanentLimit());
-        }
-        if (limits2 != null && !Double.isNaN(limits2.getPermanentLimit())) {
-            builder.permanentLimit2(limits2.getPermanentLimit());
-        }
-        BranchStatus branchStatus = line.getExtension(BranchStatus.class);
-        if (branchStatus != null) {
-            builder.branchStatus(branchStatus.getStatus().name());
+    private <D> Stream<D> getMapDataStream(UUID networkUuid, List<String> substationsId, MapDataConverter<?, D> converter) {
+        Network network = getNetwork(networkUuid, getPreloadingStrategy(substationsId));
+        if (substationsId == null) {
+            Stream<D> mapData = converter.getMapDataStream(network);
+            // converted while the response is written, so only counted
+            return MapDataProfile.isActive() ? mapData.peek(d -> MapDataProfile.count(converter.getFieldName(), 1)) : mapData;
+        } else {
+            return MapDataTraversal.getMapData(converter, network, substationsId).stream();
         }
-        return builder.build();
     }
 
-    private static GeneratorMapData toMapData(Generator generator) {
-        Terminal terminal = generator.getTerminal();
-        GeneratorMapData.GeneratorMapDataBuilder builder = GeneratorMapData.builder()
-            .name(generator.getNameOrId())
-            .id(generator.getId())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .targetP(generator.getTargetP())
-            .minP(generator.getMinP())
-            .maxP(generator.getMaxP());
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    public List<SubstationMapData> getSubstations(UUID networkUuid, List<String> substationsId) {
+        return getSubstationsStream(networkUuid, substationsId).collect(Collectors.toList());
     }
 
-    private static TwoWindingsTransformerMapData toMapData(TwoWindingsTransformer transformer) {
-        Terminal terminal1 = transformer.getTerminal1();
-        Terminal terminal2 = transformer.getTerminal2();
-        TwoWindingsTransformerMapData.TwoWindingsTransformerMapDataBuilder builder = TwoWindingsTransformerMapData.builder()
-            .name(transformer.getNameOrId())
-            .id(transformer.getId())
-            .terminal1Connected(terminal1.isConnected())
-            .terminal2Connected(terminal2.isConnected())
-            .voltageLevelId1(terminal1.getVoltageLevel().getId())
-            .voltageLevelId2(terminal2.getVoltageLevel().getId())
-            .phaseTapChanger(toMapData(transformer.getPhaseTapChanger()))
-            .ratioTapChanger(toMapData(transformer.getRatioTapChanger()));
-        if (!Double.isNaN(terminal1.getP())) {
-            builder.p1(terminal1.getP());
-        }
-        if (!Double.isNaN(terminal1.getQ())) {
-            builder.q1(terminal1.getQ());
-        }
-        if (!Double.isNaN(terminal2.getP())) {
-            builder.p2(terminal2.getP());
-        }
-        if (!Double.isNaN(terminal2.getQ())) {
-            builder.q2(terminal2.getQ());
-        }
-        if (!Double.isNaN(terminal1.getI())) {
-            builder.i1(terminal1.getI());
-        }
-        if (!Double.isNaN(terminal2.getI())) {
-            builder.i2(terminal2.getI());
-        }
-        CurrentLimits limits1 = transformer.getCurrentLimits1();
-        CurrentLimits limits2 = transformer.getCurrentLimits2();
-
-        if (limits1 != null && !Double.isNaN(limits1.getPermanentLimit())) {
-            builder.permanentLimit1(limits1.getPermanentLimit());
-        }
-        if (limits2 != null && !Double.isNaN(limits2.getPermanentLimit())) {
-            builder.permanentLimit2(limits2.getPermanentLimit());
-        }
-
-        if (transformer.hasRatioTapChanger()) {
-            builder.ratioTapChangerPosition(transformer.getRatioTapChanger().getTapPosition());
-        }
-        if (transformer.hasPhaseTapChanger()) {
-            builder.phaseTapChangerPosition(transformer.getPhaseTapChanger().getTapPosition());
+    public Stream<SubstationMapData> getSubstationsStream(UUID networkUuid, List<String> substationsId) {
+        Network network = getNetwork(networkUuid, getPreloadingStrategy(substationsId));
+        if (substationsId == null) {
+            return MapDataConverters.SUBSTATIONS.getMapDataStream(network);
+        } else {
+            return substationsId.stream().map(id -> MapDataConverters.SUBSTATIONS.toMapData(network.getSubstation(id)));
         }
-        return builder.build();
     }
 
-    private static TapChangerData toMapData(TapChanger<?, ?> tapChanger) {
-        return tapChanger == null ? null : TapChangerData.builder()
-            .lowTap(tapChanger.getLowTapPosition())
-            .highTap(tapChanger.getHighTapPosition())
-            .build();
-    }
-
-    private static ThreeWindingsTransformerMapData toMapData(ThreeWindingsTransformer transformer) {
-        ThreeWindingsTransformer.Leg leg1 = transformer.getLeg1();
-        ThreeWindingsTransformer.Leg leg2 = transformer.getLeg2();
-        ThreeWindingsTransformer.Leg leg3 = transformer.getLeg3();
-
-        Terminal terminal1 = leg1.getTerminal();
-        Terminal terminal2 = leg2.getTerminal();
-        Terminal terminal3 = leg3.getTerminal();
-
-        ThreeWindingsTransformerMapData.ThreeWindingsTransformerMapDataBuilder builder = ThreeWindingsTransformerMapData.builder()
-            .name(transformer.getNameOrId())
-            .id(transformer.getId())
-            .terminal1Connected(terminal1.isConnected())
-            .terminal2Connected(terminal2.isConnected())
-            .terminal3Connected(terminal3.isConnected())
-            .voltageLevelId1(terminal1.getVoltageLevel().getId())
-            .voltageLevelId2(terminal2.getVoltageLevel().getId())
-            .voltageLevelId3(terminal3.getVoltageLevel().getId());
-        if (!Double.isNaN(terminal1.getP())) {
-            builder.p1(terminal1.getP());
-        }
-        if (!Double.isNaN(terminal1.getQ())) {
-            builder.q1(terminal1.getQ());
-        }
-        if (!Double.isNaN(terminal2.getP())) {
-            builder.p2(terminal2.getP());
-        }
-        if (!Double.isNaN(terminal2.getQ())) {
-            builder.q2(terminal2.getQ());
-        }
-        if (!Double.isNaN(terminal3.getP())) {
-            builder.p3(terminal3.getP());
-        }
-        if (!Double.isNaN(terminal3.getQ())) {
-            builder.q3(terminal3.getQ());
-        }
-        if (!Double.isNaN(terminal1.getI())) {
-            builder.i1(terminal1.getI());
-        }
-        if (!Double.isNaN(terminal2.getI())) {
-            builder.i2(terminal2.getI());
-        }
-        if (!Double.isNaN(terminal3.getI())) {
-            builder.i3(terminal3.getI());
-        }
-
-        CurrentLimits limits1 = leg1.getCurrentLimits();
-        CurrentLimits limits2 = leg2.getCurrentLimits();
-        CurrentLimits limits3 = leg3.getCurrentLimits();
-
-        if (limits1 != null && !Double.isNaN(limits1.getPermanentLimit())) {
-            builder.permanentLimit1(limits1.getPermanentLimit());
-        }
-        if (limits2 != null && !Double.isNaN(limits2.getPermanentLimit())) {
-            builder.permanentLimit2(limits2.getPermanentLimit());
-        }
-        if (limits3 != null && !Double.isNaN(limits3.getPermanentLimit())) {
-            builder.permanentLimit3(limits3.getPermanentLimit());
-        }
+    public List<LineMapData> getLines(UUID networkUuid, List<String> substationsId) {
+        return getLinesStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
 
-        if (leg1.hasRatioTapChanger()) {
-            builder.ratioTapChanger1Position(leg1.getRatioTapChanger().getTapPosition());
-            builder.ratioTapChanger1(toMapData(leg1.getRatioTapChanger()));
-        }
-        if (leg2.hasRatioTapChanger()) {
-            builder.ratioTapChanger2Position(leg2.getRatioTapChanger().getTapPosition());
-            builder.ratioTapChanger2(toMapData(leg2.getRatioTapChanger()));
-        }
-        if (leg3.hasRatioTapChanger()) {
-            builder.ratioTapChanger3Position(leg3.getRatioTapChanger().getTapPosition());
-            builder.ratioTapChanger3(toMapData(leg3.getRatioTapChanger()));
-        }
+    public Stream<LineMapData> getLinesStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.LINES);
+    }
 
-        if (leg1.hasPhaseTapChanger()) {
-            builder.phaseTapChanger1Position(leg1.getPhaseTapChanger().getTapPosition());
-            builder.phaseTapChanger1(toMapData(leg1.getPhaseTapChanger()));
-        }
-        if (leg2.hasPhaseTapChanger()) {
-            builder.phaseTapChanger2Position(leg2.getPhaseTapChanger().getTapPosition());
-            builder.phaseTapChanger2(toMapData(leg2.getPhaseTapChanger()));
-        }
-        if (leg3.hasPhaseTapChanger()) {
-            builder.phaseTapChanger3Position(leg3.getPhaseTapChanger().getTapPosition());
-            builder.phaseTapChanger3(toMapData(leg3.getPhaseTapChanger()));
-        }
+    public List<GeneratorMapData> getGenerators(UUID networkUuid, List<String> substationsId) {
+        return getGeneratorsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
 
-        return builder.build();
+    public Stream<GeneratorMapData> getGeneratorsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.GENERATORS);
     }
 
-    private static BatteryMapData toMapData(Battery battery) {
-        Terminal terminal = battery.getTerminal();
-        BatteryMapData.BatteryMapDataBuilder builder = BatteryMapData.builder()
-            .name(battery.getNameOrId())
-            .id(battery.getId())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .p0(battery.getP0())
-            .q0(battery.getQ0());
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    public List<TwoWindingsTransformerMapData> getTwoWindingsTransformers(UUID networkUuid, List<String> substationsId) {
+        return getTwoWindingsTransformersStream(networkUuid, substationsId).collect(Collectors.toList());
     }
 
-    private static DanglingLineMapData toMapData(DanglingLine danglingLine) {
-        Terminal terminal = danglingLine.getTerminal();
-        DanglingLineMapData.DanglingLineMapDataBuilder builder = DanglingLineMapData.builder()
-            .name(danglingLine.getNameOrId())
-            .id(danglingLine.getId())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .ucteXnodeCode(danglingLine.getUcteXnodeCode())
-            .p0(danglingLine.getP0())
-            .q0(danglingLine.getQ0());
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    public Stream<TwoWindingsTransformerMapData> getTwoWindingsTransformersStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.TWO_WINDINGS_TRANSFORMERS);
     }
 
-    private static HvdcLineMapData toMapData(HvdcLine hvdcLine) {
-        HvdcLineMapData.HvdcLineMapDataBuilder builder = HvdcLineMapData.builder()
-            .name(hvdcLine.getNameOrId())
-            .id(hvdcLine.getId())
-            .convertersMode(hvdcLine.getConvertersMode())
-            .converterStationId1(hvdcLine.getConverterStation1().getId())
-            .converterStationId2(hvdcLine.getConverterStation2().getId())
-            .activePowerSetpoint(hvdcLine.getActivePowerSetpoint());
-        return builder.build();
+    public List<ThreeWindingsTransformerMapData> getThreeWindingsTransformers(UUID networkUuid, List<String> substationsId) {
+        return getThreeWindingsTransformersStream(networkUuid, substationsId).collect(Collectors.toList());
     }
 
-    private static LccConverterStationMapData toMapData(LccConverterStation lccConverterStation) {
-        Terminal terminal = lccConverterStation.getTerminal();
-        LccConverterStationMapData.LccConverterStationMapDataBuilder builder = LccConverterStationMapData.builder()
-            .name(lccConverterStation.getNameOrId())
-            .id(lccConverterStation.getId())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .terminalConnected(terminal.isConnected())
-            .lossFactor(lccConverterStation.getLossFactor())
-            .powerFactor(lccConverterStation.getPowerFactor());
-        if (lccConverterStation.getHvdcLine() != null) {
-            builder.hvdcLineId(lccConverterStation.getHvdcLine().getId());
-        }
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    public Stream<ThreeWindingsTransformerMapData> getThreeWindingsTransformersStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.THREE_WINDINGS_TRANSFORMERS);
     }
 
-    private static VscConverterStationMapData toMapData(VscConverterStation vscConverterStation) {
-        Terminal terminal = vscConverterStation.getTerminal();
-        VscConverterStationMapData.VscConverterStationMapDataBuilder builder = VscConverterStationMapData.builder()
-            .name(vscConverterStation.getNameOrId())
-            .id(vscConverterStation.getId())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .terminalConnected(terminal.isConnected())
-            .lossFactor(vscConverterStation.getLossFactor());
-        if (vscConverterStation.getHvdcLine() != null) {
-            builder.hvdcLineId(vscConverterStation.getHvdcLine().getId());
-        }
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    public Object getAll(UUID networkUuid, List<String> substationsId) {
+        return getMapData(networkUuid, substationsId, EnumSet.allOf(EquipmentType.class));
     }
 
-    private static LoadMapData toMapData(Load load) {
-        Terminal terminal = load.getTerminal();
-        LoadMapData.LoadMapDataBuilder builder = LoadMapData.builder()
-            .name(load.getNameOrId())
-            .id(load.getId())
-            .type(load.getLoadType())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .p0(load.getP0())
-            .q0(load.getQ0());
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        return builder.build();
+    /**
+     * Map data of the given equipment types, built in memory, or written while being serialized for whole networks
+     * whose estimated size is over the memory budget.
+     *
+     * @return an {@link AllMapData} or a {@link StreamedMapData}
+     */
+    public Object getMapData(UUID networkUuid, List<String> substationsId, Set<EquipmentType> types) {
+        return getMapData(networkUuid, substationsId, types, null);
     }
 
-    private static ShuntCompensatorMapData toMapData(ShuntCompensator shuntCompensator) {
-        Terminal terminal = shuntCompensator.getTerminal();
-        ShuntCompensatorMapData.ShuntCompensatorMapDataBuilder builder = ShuntCompensatorMapData.builder()
-            .name(shuntCompensator.getNameOrId())
-            .id(shuntCompensator.getId())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId());
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        if (!Double.isNaN(shuntCompensator.getTargetV())) {
-            builder.targetV(shuntCompensator.getTargetV());
-        }
-        if (!Double.isNaN(shuntCompensator.getTargetDeadband())) {
-            builder.targetDeadband(shuntCompensator.getTargetDeadband());
-        }
-        return builder.build();
+    /**
+     * Map data of the given equipment types, only keeping equipments connected to a voltage level whose nominal voltage
+     * is at least the given one, if any.
+     */
+    public Object getMapData(UUID networkUuid, List<String> substationsId, Set<EquipmentType> types, Double minNominalVoltage) {
+        Network network = getNetwork(networkUuid, getPreloadingStrategy(substationsId));
+        return getMapData(networkUuid, network, substationsId, types, minNominalVoltage);
     }
 
-    private static StaticVarCompensatorMapData toMapData(StaticVarCompensator staticVarCompensator) {
-        Terminal terminal = staticVarCompensator.getTerminal();
-        StaticVarCompensatorMapData.StaticVarCompensatorMapDataBuilder builder = StaticVarCompensatorMapData.builder()
-            .name(staticVarCompensator.getNameOrId())
-            .id(staticVarCompensator.getId())
-            .terminalConnected(terminal.isConnected())
-            .voltageLevelId(terminal.getVoltageLevel().getId())
-            .regulationMode(staticVarCompensator.getRegulationMode());
-        if (!Double.isNaN(terminal.getP())) {
-            builder.p(terminal.getP());
-        }
-        if (!Double.isNaN(terminal.getQ())) {
-            builder.q(terminal.getQ());
-        }
-        if (!Double.isNaN(staticVarCompensator.getVoltageSetpoint())) {
-            builder.voltageSetpoint(staticVarCompensator.getVoltageSetpoint());
-        }
-        if (!Double.isNaN(staticVarCompensator.getReactivePowerSetpoint())) {
-            builder.reactivePowerSetpoint(staticVarCompensator.getReactivePowerSetpoint());
-        }
-        return builder.build();
+    private static StreamedMapData getStreamedMapData(Network network, Set<EquipmentType> types) {
+        Map<String, Supplier<Stream<?>>> streams = new LinkedHashMap<>();
+        types.forEach(type -> {
+            MapDataConverter<?, ?> converter = MapDataConverters.get(type);
+            streams.put(converter.getFieldName(), () -> converter.getMapDataStream(network));
+        });
+        return new StreamedMapData(streams);
     }
 
-    public List<SubstationMapData> getSubstations(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getSubstationStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
+    private Object getMapData(UUID networkUuid, Network network, List<String> substationsId, Set<EquipmentType> types, Double minNominalVoltage) {
+        AllMapData.AllMapDataBuilder builder = AllMapData.builder();
+        if (minNominalVoltage != null) {
+            if (substationsId != null) {
+                MapDataTraversal.of(types).traverse(network, substationsId, v -> v.getNominalV() >= minNominalVoltage).setMapData(builder);
+                return builder.build();
+            }
+            // traverses the whole network, so it is bounded like a whole network conversion, but only by the size of
+            // the equipments of the accepted voltage levels
+            Predicate<VoltageLevel> voltageLevelFilter = v -> v.getNominalV() >= minNominalVoltage;
+            long estimatedSize = MapDataMemoryBudget.estimateSize(network, types, voltageLevelFilter);
+            memoryBudget.requiresStreaming(estimatedSize, false);
+            return conversionLimiter.admitUntilWritten(conversionLimiter.getWeight(estimatedSize), () -> {
+                List<String> allSubstationsId = network.getSubstationStream().map(Identifiable::getId).collect(Collectors.toList());
+                MapDataTraversal.of(types).traverse(network, allSubstationsId, voltageLevelFilter).setMapData(builder);
+                return builder.build();
+            });
+        } else if (substationsId == null) {
+            // whole network conversions are weighted by their estimated size until their response is written, streamed
+            // ones included as they are converted while being serialized
+            long estimatedSize = MapDataMemoryBudget.estimateSize(network, types);
+            int weight = conversionLimiter.getWeight(estimatedSize);
+            if (memoryBudget.requiresStreaming(estimatedSize, true)) {
+                return conversionLimiter.admitUntilWritten(weight, () -> getStreamedMapData(network, types));
+            }
+            return conversionLimiter.admitUntilWritten(weight, () -> {
+                if (sliceCache.isEnabled()) {
+                    return sliceCache.getMapData(networkUuid, network, types);
+                }
+                types.forEach(type -> MapDataConverters.get(type).setMapData(builder, network));
+                return builder.build();
+            });
         } else {
-            List<SubstationMapData> res = new ArrayList<>();
-            substationsId.stream().forEach(id -> res.add(toMapData(network.getSubstation(id))));
-            return res;
+            MapDataTraversal.of(types).traverse(network, substationsId).setMapData(builder);
+            return builder.build();
         }
     }
 
-    public List<LineMapData> getLines(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getLineStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<LineMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(Line.class).forEach(l -> res.add(toMapData(l)))));
-            return res.stream().collect(Collectors.toList());
-        }
+    /**
+     * Map data of the given equipments, looked up by id. Ids of unknown equipments, or of identifiables that are not
+     * displayed on the map, are ignored.
+     */
+    public AllMapData getEquipments(UUID networkUuid, List<String> equipmentsId) {
+        Network network = getNetwork(networkUuid, PreloadingStrategy.NONE);
+        Map<EquipmentType, MapDataConverter<?, ?>.Sink> sinks = new EnumMap<>(EquipmentType.class);
+        for (String equipmentId : equipmentsId) {
+            Identifiable<?> identifiable = network.getIdentifiable(equipmentId);
+            MapDataConverter<?, ?> converter = identifiable != null ? MapDataConverters.get(identifiable) : null;
+            if (converter != null) {
+                sinks.computeIfAbsent(converter.getType(), type -> converter.newSink()).addIdentifiable(identifiable);
+            }
+        }
+        AllMapData.AllMapDataBuilder builder = AllMapData.builder();
+        sinks.values().forEach(sink -> sink.setMapData(builder));
+        return builder.build();
     }
 
-    public List<GeneratorMapData> getGenerators(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getGeneratorStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<GeneratorMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(Generator.class).forEach(g -> res.add(toMapData(g)))));
-            return res.stream().collect(Collectors.toList());
-        }
+    /**
+     * Whether the given whole network payload is the marker of a network over the memory budget, whose map data has to
+     * be written with {@link #writeAllAsGzipJson} instead.
+     */
+    static boolean isStreamed(byte[] gzipJson) {
+        return gzipJson.length == 0;
     }
 
-    public List<TwoWindingsTransformerMapData> getTwoWindingsTransformers(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getTwoWindingsTransformerStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<TwoWindingsTransformerMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(TwoWindingsTransformer.class).forEach(t -> res.add(toMapData(t)))));
-            return res.stream().collect(Collectors.toList());
-        }
+    /**
+     * Whole network map data as gzip compressed JSON, cached by each replica and, if there is one, in the shared cache
+     * so that a network is only converted once for all replicas. The payload of a network over the memory budget is
+     * neither built nor cached, an empty marker is returned instead. Concurrent misses for a network wait for a single
+     * conversion rather than each converting it.
+     */
+    @Cacheable(value = ALL_GZIP_CACHE, sync = true)
+    public byte[] getAllAsGzipJson(UUID networkUuid) {
+        Optional<byte[]> shared = payloadCache.flatMap(cache -> cache.get(networkUuid, ALL_GZIP_CACHE));
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+        Network network = getNetwork(networkUuid, PreloadingStrategy.COLLECTION);
+        Set<EquipmentType> types = EnumSet.allOf(EquipmentType.class);
+        if (memoryBudget.requiresStreaming(MapDataMemoryBudget.estimateSize(network, types), true)) {
+            return new byte[0];
+        }
+        byte[] payload = mapDataCompressor.toGzipJson(getMapData(networkUuid, network, null, types, null));
+        payloadCache.ifPresent(cache -> cache.put(networkUuid, ALL_GZIP_CACHE, payload));
+        return payload;
     }
 
-    public List<ThreeWindingsTransformerMapData> getThreeWindingsTransformers(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getThreeWindingsTransformerStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<ThreeWindingsTransformerMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(ThreeWindingsTransformer.class).forEach(t -> res.add(toMapData(t)))));
-            return res.stream().collect(Collectors.toList());
-        }
+    /**
+     * Writes the whole network map data as gzip compressed JSON while converting it, for networks over the memory
+     * budget. The conversion is admitted until the payload is written, which may be outside of the request thread.
+     */
+    public void writeAllAsGzipJson(UUID networkUuid, OutputStream out) {
+        Network network = getNetwork(networkUuid, PreloadingStrategy.COLLECTION);
+        Set<EquipmentType> types = EnumSet.allOf(EquipmentType.class);
+        long estimatedSize = MapDataMemoryBudget.estimateSize(network, types);
+        conversionLimiter.admit(conversionLimiter.getWeight(estimatedSize), () -> {
+            mapDataCompressor.writeGzipJson(getStreamedMapData(network, types), out);
+            return null;
+        });
     }
 
-    public AllMapData getAll(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
+    public boolean isSnapshotEnabled() {
+        return snapshotStore.isEnabled();
+    }
 
-        if (substationsId == null) {
-            return AllMapData.builder()
-                .substations(network.getSubstationStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .lines(network.getLineStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .generators(network.getGeneratorStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .twoWindingsTransformers(network.getTwoWindingsTransformerStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .threeWindingsTransformers(network.getThreeWindingsTransformerStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .batteries(network.getBatteryStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .danglingLines(network.getDanglingLineStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .hvdcLines(network.getHvdcLineStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .lccConverterStations(network.getLccConverterStationStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .loads(network.getLoadStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .shuntCompensators(network.getShuntCompensatorStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .staticVarCompensators(network.getStaticVarCompensatorStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .vscConverterStations(network.getVscConverterStationStream().map(NetworkMapService::toMapData).collect(Collectors.toList()))
-                .build();
-        } else {
-            Set<SubstationMapData> substationsMap = new LinkedHashSet<>();
-            Set<LineMapData> linesMap = new LinkedHashSet<>();
-            Set<GeneratorMapData> generatorsMap = new LinkedHashSet<>();
-            Set<TwoWindingsTransformerMapData> twoWindingsTransformersMap = new LinkedHashSet<>();
-            Set<ThreeWindingsTransformerMapData> threeWindingsTransformersMap = new LinkedHashSet<>();
-            Set<BatteryMapData> batteriesMap = new LinkedHashSet<>();
-            Set<DanglingLineMapData> danglingLinesMap = new LinkedHashSet<>();
-            Set<HvdcLineMapData> hvdcLinesMap = new LinkedHashSet<>();
-            Set<LccConverterStationMapData> lccConverterStationsMap = new LinkedHashSet<>();
-            Set<LoadMapData> loadsMap = new LinkedHashSet<>();
-            Set<ShuntCompensatorMapData> shuntCompensatorsMap = new LinkedHashSet<>();
-            Set<StaticVarCompensatorMapData> staticVarCompensatorsMap = new LinkedHashSet<>();
-            Set<VscConverterStationMapData> vscConverterStationsMap = new LinkedHashSet<>();
-
-            substationsId.stream().forEach(id -> {
-                Substation substation = network.getSubstation(id);
-                substationsMap.add(toMapData(substation));
-                substation.getVoltageLevelStream().forEach(v ->
-                    v.getConnectables().forEach(c -> {
-                        switch (c.getType()) {
-                            case LINE:
-                                linesMap.add(toMapData((Line) c));
-                                break;
-                            case TWO_WINDINGS_TRANSFORMER:
-                                twoWindingsTransformersMap.add(toMapData((TwoWindingsTransformer) c));
-                                break;
-                            case THREE_WINDINGS_TRANSFORMER:
-                                threeWindingsTransformersMap.add(toMapData((ThreeWindingsTransformer) c));
-                                break;
-                            case GENERATOR:
-                                generatorsMap.add(toMapData((Generator) c));
-                                break;
-                            case BATTERY:
-                                batteriesMap.add(toMapData((Battery) c));
-                                break;
-                            case LOAD:
-                                loadsMap.add(toMapData((Load) c));
-                                break;
-                            case SHUNT_COMPENSATOR:
-                                shuntCompensatorsMap.add(toMapData((ShuntCompensator) c));
-                                break;
-                            case DANGLING_LINE:
-                                danglingLinesMap.add(toMapData((DanglingLine) c));
-                                break;
-                            case STATIC_VAR_COMPENSATOR:
-                                staticVarCompensatorsMap.add(toMapData((StaticVarCompensator) c));
-                                break;
-                            case HVDC_CONVERTER_STATION: {
-                                HvdcConverterStation<?> hdvcConverter = (HvdcConverterStation<?>) c;
-                                HvdcLine hvdcLine = hdvcConverter.getHvdcLine();
-                                if (hvdcLine != null) {
-                                    hvdcLinesMap.add(toMapData(hvdcLine));
-                                }
-                                if (hdvcConverter.getHvdcType() == HvdcConverterStation.HvdcType.LCC) {
-                                    lccConverterStationsMap.add(toMapData((LccConverterStation) hdvcConverter));
-                                } else {
-                                    vscConverterStationsMap.add(toMapData((VscConverterStation) hdvcConverter));
-                                }
-                            }
-                            break;
-                            default:
-                        }
-                    })
-                );
-            });
-            return AllMapData.builder()
-                .substations(substationsMap.stream().collect(Collectors.toList()))
-                .lines(linesMap.stream().collect(Collectors.toList()))
-                .generators(generatorsMap.stream().collect(Collectors.toList()))
-                .twoWindingsTransformers(twoWindingsTransformersMap.stream().collect(Collectors.toList()))
-                .threeWindingsTransformers(threeWindingsTransformersMap.stream().collect(Collectors.toList()))
-                .batteries(batteriesMap.stream().collect(Collectors.toList()))
-                .danglingLines(danglingLinesMap.stream().collect(Collectors.toList()))
-                .hvdcLines(hvdcLinesMap.stream().collect(Collectors.toList()))
-                .lccConverterStations(lccConverterStationsMap.stream().collect(Collectors.toList()))
-                .loads(loadsMap.stream().collect(Collectors.toList()))
-                .shuntCompensators(shuntCompensatorsMap.stream().collect(Collectors.toList()))
-                .staticVarCompensators(staticVarCompensatorsMap.stream().collect(Collectors.toList()))
-                .vscConverterStations(vscConverterStationsMap.stream().collect(Collectors.toList()))
-                .build();
-        }
+    public FileChannel getAllSnapshot(UUID networkUuid) {
+        Network network = getNetwork(networkUuid, PreloadingStrategy.COLLECTION);
+        String version = snapshotStore.getVersion(networkUuid, network);
+        return snapshotStore.open(networkUuid, version)
+            .orElseGet(() -> snapshotStore.put(networkUuid, version,
+                mapDataCompressor.toGzipJson(getMapData(networkUuid, network, null, EnumSet.allOf(EquipmentType.class), null))));
     }
 
     public List<BatteryMapData> getBatteries(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getBatteryStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<BatteryMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(Battery.class).forEach(b -> res.add(toMapData(b)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getBatteriesStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<BatteryMapData> getBatteriesStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.BATTERIES);
     }
 
     public List<DanglingLineMapData> getDanglingLines(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getDanglingLineStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<DanglingLineMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(DanglingLine.class).forEach(d -> res.add(toMapData(d)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getDanglingLinesStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<DanglingLineMapData> getDanglingLinesStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.DANGLING_LINES);
     }
 
     public List<HvdcLineMapData> getHvdcLines(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getHvdcLineStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<HvdcLineMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(HvdcConverterStation.class).forEach(h -> {
-                        HvdcLine hvdcLine = h.getHvdcLine();
-                        if (hvdcLine != null) {
-                            res.add(toMapData(hvdcLine));
-                        }
-                    })));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getHvdcLinesStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<HvdcLineMapData> getHvdcLinesStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.HVDC_LINES);
     }
 
     public List<LccConverterStationMapData> getLccConverterStations(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getLccConverterStationStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<LccConverterStationMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(LccConverterStation.class).forEach(l -> res.add(toMapData(l)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getLccConverterStationsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<LccConverterStationMapData> getLccConverterStationsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.LCC_CONVERTER_STATIONS);
     }
 
     public List<LoadMapData> getLoads(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getLoadStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<LoadMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(Load.class).forEach(l -> res.add(toMapData(l)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getLoadsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<LoadMapData> getLoadsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.LOADS);
     }
 
     public List<ShuntCompensatorMapData> getShuntCompensators(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getShuntCompensatorStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<ShuntCompensatorMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(ShuntCompensator.class).forEach(s -> res.add(toMapData(s)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getShuntCompensatorsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<ShuntCompensatorMapData> getShuntCompensatorsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.SHUNT_COMPENSATORS);
     }
 
     public List<StaticVarCompensatorMapData> getStaticVarCompensators(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getStaticVarCompensatorStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<StaticVarCompensatorMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(StaticVarCompensator.class).forEach(s -> res.add(toMapData(s)))));
-            return res.stream().collect(Collectors.toList());
-        }
+        return getStaticVarCompensatorsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<StaticVarCompensatorMapData> getStaticVarCompensatorsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.STATIC_VAR_COMPENSATORS);
     }
 
     public List<VscConverterStationMapData> getVscConverterStations(UUID networkUuid, List<String> substationsId) {
-        Network network = getNetwork(networkUuid, substationsId == null ? PreloadingStrategy.COLLECTION : PreloadingStrategy.NONE);
-        if (substationsId == null) {
-            return network.getVscConverterStationStream()
-                .map(NetworkMapService::toMapData).collect(Collectors.toList());
-        } else {
-            Set<VscConverterStationMapData> res = new LinkedHashSet<>();
-            substationsId.stream().forEach(id ->
-                network.getSubstation(id).getVoltageLevelStream().forEach(v ->
-                    v.getConnectables(VscConverterStation.class).forEach(s -> res.add(toMapData(s)))));
-            return res.stream().collect(Collectors.toList());
+        return getVscConverterStationsStream(networkUuid, substationsId).collect(Collectors.toList());
+    }
+
+    public Stream<VscConverterStationMapData> getVscConverterStationsStream(UUID networkUuid, List<String> substationsId) {
+        return getMapDataStream(networkUuid, substationsId, MapDataConverters.VSC_CONVERTER_STATIONS);
+    }
+
+    @Cacheable(AGGREGATES_CACHE)
+    public AggregatesMapData getAggregates(UUID networkUuid) {
+        return PowerBalanceAggregator.aggregate(getNetwork(networkUuid, PreloadingStrategy.COLLECTION));
+    }
+
+    @Cacheable(CLUSTERS_CACHE)
+    public List<SubstationClusterMapData> getClusters(UUID networkUuid, ClusterLevel level, boolean withSubstationIds) {
+        return SubstationClusterIndex.build(getNetwork(networkUuid, PreloadingStrategy.COLLECTION), level, withSubstationIds);
+    }
+
+    public void captureFlowHistory(UUID networkUuid) {
+        flowHistoryStore.capture(networkUuid, Instant.now(), getNetwork(networkUuid, PreloadingStrategy.COLLECTION));
+    }
+
+    public FlowHistoryMapData getLinesFlowHistory(UUID networkUuid, Instant from, Instant to) {
+        return flowHistoryStore.getLines(networkUuid, from, to);
+    }
+
+    public FlowHistoryMapData getTwoWindingsTransformersFlowHistory(UUID networkUuid, Instant from, Instant to) {
+        return flowHistoryStore.getTwoWindingsTransformers(networkUuid, from, to);
+    }
+
+    public FlowHistoryMapData getThreeWindingsTransformersFlowHistory(UUID networkUuid, Instant from, Instant to) {
+        return flowHistoryStore.getThreeWindingsTransformers(networkUuid, from, to);
+    }
+
+    public void deleteFlowHistory(UUID networkUuid) {
+        flowHistoryStore.remove(networkUuid);
+    }
+
+    public void invalidate(UUID networkUuid, Set<EquipmentType> types, Set<String> substationsId) {
+        cacheInvalidator.invalidate(NetworkModificationNotification.builder()
+            .networkUuid(networkUuid)
+            .types(types == null || types.isEmpty() ? null : types)
+            .substationIds(substationsId == null || substationsId.isEmpty() ? null : substationsId)
+            .build());
+    }
+
+    public List<BranchLoadingMapData> getBranchLoadings(UUID networkUuid, int top, double threshold) {
+        if (top <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parameter 'top' must be strictly positive");
+        }
+        if (top > BranchLoadingIndex.MAX_TOP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parameter 'top' must not exceed " + BranchLoadingIndex.MAX_TOP);
         }
+        return BranchLoadingIndex.getMostLoadedBranches(getNetwork(networkUuid, PreloadingStrategy.COLLECTION), top, threshold);
     }
 }
@@ -8,6 +8,7 @@ package org.gridsuite.network.map;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.ApiInfoBuilder;
@@ -22,6 +23,7 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 @Configuration
+@ConditionalOnProperty(name = "network-map.swagger.enabled", havingValue = "true", matchIfMissing = true)
 @EnableSwagger2
 public class NetworkMapSwaggerConfig {
     @Bean
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.gridsuite.network.map.model.NetworkModificationNotification;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Consumes the network modification notifications of a message broker. As a functional consumer, it is bound to a
+ * broker destination by Spring Cloud Stream with {@code spring.cloud.function.definition=networkModificationConsumer},
+ * JSON messages being converted to notifications.
+ */
+@Component
+class NetworkModificationConsumer implements Consumer<NetworkModificationNotification> {
+
+    private final MapDataCacheInvalidator invalidator;
+
+    NetworkModificationConsumer(MapDataCacheInvalidator invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public void accept(NetworkModificationNotification notification) {
+        invalidator.invalidate(notification);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Country;
+import com.powsybl.iidm.network.Injection;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.VoltageLevel;
+import org.gridsuite.network.map.model.AggregatesMapData;
+import org.gridsuite.network.map.model.PowerBalanceMapData;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sums injection powers per voltage level in a single pass, then rolls the voltage level
+ * sums up by substation, country and nominal voltage. Like every network read, the pass runs on the
+ * calling thread: network instances are not safe for concurrent reads.
+ */
+final class PowerBalanceAggregator {
+
+    private PowerBalanceAggregator() {
+    }
+
+    private static final class PowerBalance {
+
+        private double generationP;
+        private double generationQ;
+        private double loadP;
+        private double loadQ;
+        private double netP;
+        private double netQ;
+
+        private void add(Injection<?> injection) {
+            Terminal terminal = injection.getTerminal();
+            double p = Double.isNaN(terminal.getP()) ? 0 : terminal.getP();
+            double q = Double.isNaN(terminal.getQ()) ? 0 : terminal.getQ();
+            switch (injection.getType()) {
+                case GENERATOR:
+                case BATTERY:
+                    generationP += p;
+                    generationQ += q;
+                    break;
+                case LOAD:
+                    loadP += p;
+                    loadQ += q;
+                    break;
+                default:
+            }
+            netP += p;
+            netQ += q;
+        }
+
+        private PowerBalance merge(PowerBalance other) {
+            generationP += other.generationP;
+            generationQ += other.generationQ;
+            loadP += other.loadP;
+            loadQ += other.loadQ;
+            netP += other.netP;
+            netQ += other.netQ;
+            return this;
+        }
+
+        private PowerBalanceMapData toMapData(String id) {
+            return PowerBalanceMapData.builder()
+                .id(id)
+                .generationP(generationP)
+                .generationQ(generationQ)
+                .loadP(loadP)
+                .loadQ(loadQ)
+                .netP(netP)
+                .netQ(netQ)
+                .build();
+        }
+    }
+
+    private static Stream<Injection<?>> getInjectionStream(Network network) {
+        return Stream.<Stream<? extends Injection<?>>>of(
+                network.getGeneratorStream(),
+                network.getBatteryStream(),
+                network.getLoadStream(),
+                network.getDanglingLineStream(),
+                network.getShuntCompensatorStream(),
+                network.getStaticVarCompensatorStream(),
+                network.getLccConverterStationStream(),
+                network.getVscConverterStationStream())
+            .flatMap(Function.identity());
+    }
+
+    private static List<PowerBalanceMapData> toMapData(Map<String, PowerBalance> balances) {
+        return balances.entrySet().stream().map(e -> e.getValue().toMapData(e.getKey())).collect(Collectors.toUnmodifiableList());
+    }
+
+    static AggregatesMapData aggregate(Network network) {
+        Map<String, PowerBalance> balanceByVoltageLevel = getInjectionStream(network)
+            .collect(Collectors.groupingBy(i -> i.getTerminal().getVoltageLevel().getId(),
+                Collector.of(PowerBalance::new, PowerBalance::add, PowerBalance::merge)));
+
+        Map<String, PowerBalance> voltageLevels = new LinkedHashMap<>();
+        Map<String, PowerBalance> substations = new LinkedHashMap<>();
+        Map<String, PowerBalance> countries = new TreeMap<>();
+        Map<Double, PowerBalance> nominalVoltages = new TreeMap<>();
+        network.getSubstationStream().forEach(substation -> {
+            PowerBalance substationBalance = substations.computeIfAbsent(substation.getId(), id -> new PowerBalance());
+            Optional<String> countryName = substation.getCountry().map(Country::getName);
+            for (VoltageLevel voltageLevel : substation.getVoltageLevels()) {
+                PowerBalance balance = balanceByVoltageLevel.getOrDefault(voltageLevel.getId(), new PowerBalance());
+                voltageLevels.put(voltageLevel.getId(), balance);
+                substationBalance.merge(balance);
+                countryName.ifPresent(name -> countries.computeIfAbsent(name, n -> new PowerBalance()).merge(balance));
+                nominalVoltages.computeIfAbsent(voltageLevel.getNominalV(), v -> new PowerBalance()).merge(balance);
+            }
+        });
+
+        return AggregatesMapData.builder()
+            .substations(toMapData(substations))
+            .voltageLevels(toMapData(voltageLevels))
+            .countries(toMapData(countries))
+            .nominalVoltages(nominalVoltages.entrySet().stream()
+                .map(e -> e.getValue().toMapData(String.valueOf(e.getKey())))
+                .collect(Collectors.toUnmodifiableList()))
+            .build();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Payload cache stored in the {@value #CACHE_NAME} cache of the Spring cache manager, shared by all the replicas when
+ * the cache manager is backed by a distributed store, such as Redis or Hazelcast with {@code spring.cache.type}.
+ * Payloads are stored with their write date and expire after the time to live whatever the store, as the cache
+ * abstraction cannot set an expiration on its entries.
+ */
+@Component
+@ConditionalOnProperty(name = "network-map.shared-cache.type", havingValue = "spring-cache")
+class SpringCacheMapDataPayloadCache implements MapDataPayloadCache {
+
+    static final String CACHE_NAME = "map-data-payloads";
+
+    /**
+     * Serializable, so that it can be stored by any distributed store.
+     */
+    private static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] payload;
+
+        // wall clock time, shared by the replicas
+        private final long writeTime = System.currentTimeMillis();
+
+        private Entry(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    private final Cache cache;
+
+    private final long timeToLive;
+
+    SpringCacheMapDataPayloadCache(CacheManager cacheManager,
+                                   @Value("${network-map.shared-cache.time-to-live:PT60S}") Duration timeToLive) {
+        cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), () -> "Cache '" + CACHE_NAME + "' is not configured");
+        this.timeToLive = timeToLive.toMillis();
+    }
+
+    private static String getKey(UUID networkUuid, String key) {
+        return networkUuid + ":" + key;
+    }
+
+    @Override
+    public Optional<byte[]> get(UUID networkUuid, String key) {
+        Entry entry = cache.get(getKey(networkUuid, key), Entry.class);
+        if (entry != null && System.currentTimeMillis() - entry.writeTime >= timeToLive) {
+            evict(networkUuid, key);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry).map(e -> e.payload);
+    }
+
+    @Override
+    public void put(UUID networkUuid, String key, byte[] payload) {
+        cache.put(getKey(networkUuid, key), new Entry(payload));
+    }
+
+    @Override
+    public void evict(UUID networkUuid, String key) {
+        cache.evict(getKey(networkUuid, key));
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Country;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.VoltageLevel;
+import org.gridsuite.network.map.model.SubstationClusterMapData;
+
+import java.util.*;
+
+/**
+ * Groups substations into clusters, to be drawn as a single marker each at low zoom levels: by country, then by
+ * country and highest nominal voltage. Substations without a country are grouped in clusters without a country name,
+ * listed last. Substation positions are not part of the network, clients place a cluster from the positions of its
+ * substations, whose ids are only listed on demand.
+ */
+final class SubstationClusterIndex {
+
+    private SubstationClusterIndex() {
+    }
+
+    private static final class Cluster {
+
+        private final List<String> substationIds = new ArrayList<>();
+
+        private int voltageLevelCount;
+
+        private Cluster add(Substation substation) {
+            substationIds.add(substation.getId());
+            voltageLevelCount += (int) substation.getVoltageLevelStream().count();
+            return this;
+        }
+
+        private Cluster merge(Cluster other) {
+            substationIds.addAll(other.substationIds);
+            voltageLevelCount += other.voltageLevelCount;
+            return this;
+        }
+
+        private SubstationClusterMapData toMapData(String countryName, Double nominalVoltage, boolean withSubstationIds) {
+            return SubstationClusterMapData.builder()
+                .countryName(countryName)
+                .nominalVoltage(nominalVoltage)
+                .substationCount(substationIds.size())
+                .voltageLevelCount(voltageLevelCount)
+                .substationIds(withSubstationIds ? List.copyOf(substationIds) : null)
+                .build();
+        }
+    }
+
+    private static double getMaxNominalVoltage(Substation substation) {
+        return substation.getVoltageLevelStream().mapToDouble(VoltageLevel::getNominalV).max().orElse(0);
+    }
+
+    static List<SubstationClusterMapData> build(Network network, ClusterLevel level, boolean withSubstationIds) {
+        Map<String, SortedMap<Double, Cluster>> clustersByCountry = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        network.getSubstationStream().forEach(substation -> clustersByCountry
+            .computeIfAbsent(substation.getCountry().map(Country::getName).orElse(null), name -> new TreeMap<>(Comparator.reverseOrder()))
+            .computeIfAbsent(getMaxNominalVoltage(substation), v -> new Cluster())
+            .add(substation));
+
+        List<SubstationClusterMapData> clusters = new ArrayList<>();
+        clustersByCountry.forEach((countryName, clustersByNominalVoltage) -> {
+            if (level == ClusterLevel.COUNTRY) {
+                clusters.add(clustersByNominalVoltage.values().stream()
+                    .reduce(new Cluster(), Cluster::merge)
+                    .toMapData(countryName, null, withSubstationIds));
+            } else {
+                clustersByNominalVoltage.forEach((nominalVoltage, cluster) -> clusters.add(cluster.toMapData(countryName, nominalVoltage, withSubstationIds)));
+            }
+        });
+        return Collections.unmodifiableList(clusters);
+    }
+}
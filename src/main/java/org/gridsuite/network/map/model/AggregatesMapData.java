@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Power balances of a network, grouped by substation, voltage level, country and nominal voltage.
+ */
+@Builder
+@Getter
+public class AggregatesMapData {
+    private List<PowerBalanceMapData> substations;
+    private List<PowerBalanceMapData> voltageLevels;
+    private List<PowerBalanceMapData> countries;
+    private List<PowerBalanceMapData> nominalVoltages;
+}
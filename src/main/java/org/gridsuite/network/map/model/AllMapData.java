@@ -6,6 +6,7 @@
  */
 package org.gridsuite.network.map.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -16,6 +17,7 @@ import java.util.List;
  */
 @Builder
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AllMapData {
     private List<SubstationMapData> substations;
     private List<LineMapData> lines;
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.powsybl.iidm.network.ConnectableType;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Loading of the most loaded side of a line or transformer, as the ratio of its current to its permanent limit.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class BranchLoadingMapData {
+
+    private String id;
+
+    private ConnectableType type;
+
+    private int side;
+
+    private double i;
+
+    private double permanentLimit;
+
+    private double loading;
+}
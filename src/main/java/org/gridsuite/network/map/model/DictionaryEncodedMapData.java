@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Map data whose voltage level ids and country names are written as indexes in the
+ * {@code voltageLevelIds} and {@code countryNames} tables that follow it.
+ */
+@Getter
+@JsonSerialize(using = DictionaryEncodedMapData.Serializer.class)
+public class DictionaryEncodedMapData {
+
+    private final Object data;
+
+    public DictionaryEncodedMapData(Object data) {
+        this.data = data;
+    }
+
+    static class Serializer extends StdSerializer<DictionaryEncodedMapData> {
+
+        Serializer() {
+            super(DictionaryEncodedMapData.class);
+        }
+
+        @Override
+        public void serialize(DictionaryEncodedMapData value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            MapDataDictionary dictionary = new MapDataDictionary();
+            provider.setAttribute(MapDataDictionary.class, dictionary);
+            try {
+                generator.writeStartObject();
+                provider.defaultSerializeField("data", value.getData(), generator);
+                // tables are complete only once the data has been written
+                provider.defaultSerializeField("voltageLevelIds", dictionary.getVoltageLevelIds(), generator);
+                provider.defaultSerializeField("countryNames", dictionary.getCountryNames(), generator);
+                generator.writeEndObject();
+            } finally {
+                provider.setAttribute(MapDataDictionary.class, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Flows captured over several runs of a network, in columns: the n-th value of each branch series is the one of the
+ * n-th capture date. Only the branches of the requested type are set.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class FlowHistoryMapData {
+
+    private List<Instant> dates;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<LineFlowHistoryMapData> lines;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TwoWindingsTransformerFlowHistoryMapData> twoWindingsTransformers;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ThreeWindingsTransformerFlowHistoryMapData> threeWindingsTransformers;
+}
@@ -7,6 +7,7 @@
 package org.gridsuite.network.map.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -23,6 +24,7 @@ public class GeneratorMapData {
 
     private String name;
 
+    @JsonSerialize(using = MapDataDictionary.VoltageLevelIdSerializer.class)
     private String voltageLevelId;
 
     private Boolean terminalConnected;
@@ -7,6 +7,7 @@
 package org.gridsuite.network.map.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -22,8 +23,10 @@ public class LineMapData {
 
     private String id;
 
+    @JsonSerialize(using = MapDataDictionary.VoltageLevelIdSerializer.class)
     private String voltageLevelId1;
 
+    @JsonSerialize(using = MapDataDictionary.VoltageLevelIdSerializer.class)
     private String voltageLevelId2;
 
     private String name;
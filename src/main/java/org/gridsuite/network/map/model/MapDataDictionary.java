@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tables of the voltage level ids and country names met while serializing map data. When a dictionary
+ * is set as serialization attribute, fields annotated with the serializers below are written as indexes
+ * in these tables instead of repeating the same strings for every equipment.
+ */
+public class MapDataDictionary {
+
+    private final Map<String, Integer> voltageLevelIndexes = new HashMap<>();
+
+    private final List<String> voltageLevelIds = new ArrayList<>();
+
+    private final Map<String, Integer> countryIndexes = new HashMap<>();
+
+    private final List<String> countryNames = new ArrayList<>();
+
+    private static int indexOf(String value, Map<String, Integer> indexes, List<String> values) {
+        return indexes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    public int getVoltageLevelIndex(String voltageLevelId) {
+        return indexOf(voltageLevelId, voltageLevelIndexes, voltageLevelIds);
+    }
+
+    public int getCountryIndex(String countryName) {
+        return indexOf(countryName, countryIndexes, countryNames);
+    }
+
+    public List<String> getVoltageLevelIds() {
+        return voltageLevelIds;
+    }
+
+    public List<String> getCountryNames() {
+        return countryNames;
+    }
+
+    private abstract static class AbstractIndexSerializer extends StdSerializer<String> {
+
+        protected AbstractIndexSerializer() {
+            super(String.class);
+        }
+
+        protected abstract int getIndex(MapDataDictionary dictionary, String value);
+
+        @Override
+        public void serialize(String value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            MapDataDictionary dictionary = (MapDataDictionary) provider.getAttribute(MapDataDictionary.class);
+            if (dictionary == null) {
+                generator.writeString(value);
+            } else {
+                generator.writeNumber(getIndex(dictionary, value));
+            }
+        }
+    }
+
+    public static class VoltageLevelIdSerializer extends AbstractIndexSerializer {
+
+        @Override
+        protected int getIndex(MapDataDictionary dictionary, String value) {
+            return dictionary.getVoltageLevelIndex(value);
+        }
+    }
+
+    public static class CountryNameSerializer extends AbstractIndexSerializer {
+
+        @Override
+        protected int getIndex(MapDataDictionary dictionary, String value) {
+            return dictionary.getCountryIndex(value);
+        }
+    }
+}
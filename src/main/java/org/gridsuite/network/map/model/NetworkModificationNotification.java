@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.gridsuite.network.map.EquipmentType;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Notification that a network has been modified, by a load flow or a topology edit for instance.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkModificationNotification {
+
+    private UUID networkUuid;
+
+    /**
+     * Types of the modified equipments, all of them when {@code null}.
+     */
+    private Set<EquipmentType> types;
+
+    /**
+     * Ids of the edited substations, the whole network when {@code null}.
+     */
+    private Set<String> substationIds;
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Active and reactive power sums of the injections of a substation, voltage level, country or nominal voltage.
+ * Values follow the IIDM receptor convention of the terminals they come from.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class PowerBalanceMapData {
+
+    private String id;
+
+    private double generationP;
+
+    private double generationQ;
+
+    private double loadP;
+
+    private double loadQ;
+
+    private double netP;
+
+    private double netQ;
+}
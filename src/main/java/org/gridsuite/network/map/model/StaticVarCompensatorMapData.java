@@ -7,6 +7,7 @@
 package org.gridsuite.network.map.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.powsybl.iidm.network.StaticVarCompensator;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -24,6 +25,7 @@ public class StaticVarCompensatorMapData {
 
     private String name;
 
+    @JsonSerialize(using = MapDataDictionary.VoltageLevelIdSerializer.class)
     private String voltageLevelId;
 
     private Boolean terminalConnected;
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Map data written with the same layout as {@link AllMapData}, but whose collections are converted from the network
+ * while being serialized, one element at a time, instead of being built in memory first.
+ */
+@Getter
+@JsonSerialize(using = StreamedMapData.Serializer.class)
+public class StreamedMapData {
+
+    private final Map<String, Supplier<Stream<?>>> data;
+
+    public StreamedMapData(Map<String, Supplier<Stream<?>>> data) {
+        this.data = data;
+    }
+
+    static class Serializer extends StdSerializer<StreamedMapData> {
+
+        Serializer() {
+            super(StreamedMapData.class);
+        }
+
+        @Override
+        public void serialize(StreamedMapData value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            for (Map.Entry<String, Supplier<Stream<?>>> e : value.getData().entrySet()) {
+                generator.writeArrayFieldStart(e.getKey());
+                try (Stream<?> mapData = e.getValue().get()) {
+                    Iterator<?> it = mapData.iterator();
+                    while (it.hasNext()) {
+                        provider.defaultSerializeValue(it.next(), generator);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+}
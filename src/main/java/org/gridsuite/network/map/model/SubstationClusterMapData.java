@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Substations grouped in a single map marker: all the substations of a country or, at a finer level, those of a
+ * country whose highest nominal voltage is the given one. Substation ids are only listed on demand, a marker only
+ * needs the counts.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubstationClusterMapData {
+
+    private String countryName;
+
+    private Double nominalVoltage;
+
+    private int substationCount;
+
+    private int voltageLevelCount;
+
+    private List<String> substationIds;
+}
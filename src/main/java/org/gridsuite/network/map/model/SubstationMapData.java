@@ -7,6 +7,7 @@
 package org.gridsuite.network.map.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -26,6 +27,7 @@ public class SubstationMapData {
     private String name;
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonSerialize(using = MapDataDictionary.CountryNameSerializer.class)
     private String countryName;
 
     private List<VoltageLevelMapData> voltageLevels;
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map.model;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Flows and tap positions of a two windings transformer over the captured runs, one value per run, {@code null} when
+ * unknown.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class TwoWindingsTransformerFlowHistoryMapData {
+
+    private String id;
+
+    private List<Double> p1;
+
+    private List<Double> q1;
+
+    private List<Double> i1;
+
+    private List<Double> p2;
+
+    private List<Double> q2;
+
+    private List<Double> i2;
+
+    private List<Integer> ratioTapChangerPosition;
+
+    private List<Integer> phaseTapChangerPosition;
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Line;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.ThreeWindingsTransformer;
+import com.powsybl.iidm.network.TwoWindingsTransformer;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.iidm.network.test.ThreeWindingsTransformerNetworkFactory;
+import org.gridsuite.network.map.model.FlowHistoryMapData;
+import org.gridsuite.network.map.model.LineFlowHistoryMapData;
+import org.gridsuite.network.map.model.ThreeWindingsTransformerFlowHistoryMapData;
+import org.gridsuite.network.map.model.TwoWindingsTransformerFlowHistoryMapData;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class FlowHistoryStoreTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    private static final Instant DATE = Instant.parse("2021-06-01T10:00:00Z");
+
+    private static LineFlowHistoryMapData getLine(FlowHistoryMapData history, String id) {
+        return history.getLines().stream().filter(line -> line.getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testCaptureAndGet() {
+        FlowHistoryStore store = new FlowHistoryStore(10, 10);
+        Network network = EurostagTutorialExample1Factory.create();
+        Line line = network.getLine("NHV1_NHV2_1");
+        store.capture(NETWORK_UUID, DATE, network);
+        line.getTerminal1().setP(100).setQ(10);
+        store.capture(NETWORK_UUID, DATE.plusSeconds(60), network);
+        line.getTerminal1().setP(200);
+        store.capture(NETWORK_UUID, DATE.plusSeconds(120), network);
+
+        FlowHistoryMapData history = store.getLines(NETWORK_UUID, null, null);
+        assertEquals(List.of(DATE, DATE.plusSeconds(60), DATE.plusSeconds(120)), history.getDates());
+        LineFlowHistoryMapData lineHistory = getLine(history, "NHV1_NHV2_1");
+        assertEquals(Arrays.asList(null, 100.0, 200.0), lineHistory.getP1());
+        assertEquals(Arrays.asList(null, 10.0, 10.0), lineHistory.getQ1());
+        assertEquals(Arrays.asList(null, null, null), getLine(history, "NHV1_NHV2_2").getP1());
+
+        history = store.getLines(NETWORK_UUID, DATE.plusSeconds(30), DATE.plusSeconds(60));
+        assertEquals(List.of(DATE.plusSeconds(60)), history.getDates());
+        assertEquals(List.of(100.0), getLine(history, "NHV1_NHV2_1").getP1());
+
+        store.remove(NETWORK_UUID);
+        assertTrue(store.getLines(NETWORK_UUID, null, null).getDates().isEmpty());
+    }
+
+    @Test
+    public void testTransformers() {
+        FlowHistoryStore store = new FlowHistoryStore(10, 10);
+        Network network = EurostagTutorialExample1Factory.create();
+        TwoWindingsTransformer transformer = network.getTwoWindingsTransformer("NHV2_NLOAD");
+        store.capture(NETWORK_UUID, DATE, network);
+        transformer.getTerminal2().setP(-600);
+        transformer.getRatioTapChanger().setTapPosition(2);
+        store.capture(NETWORK_UUID, DATE.plusSeconds(60), network);
+
+        FlowHistoryMapData history = store.getTwoWindingsTransformers(NETWORK_UUID, null, null);
+        assertEquals(List.of(DATE, DATE.plusSeconds(60)), history.getDates());
+        assertNull(history.getLines());
+        TwoWindingsTransformerFlowHistoryMapData transformerHistory = history.getTwoWindingsTransformers().stream()
+            .filter(t -> t.getId().equals("NHV2_NLOAD")).findFirst().orElseThrow();
+        assertEquals(Arrays.asList(null, -600.0), transformerHistory.getP2());
+        assertEquals(List.of(1, 2), transformerHistory.getRatioTapChangerPosition());
+        assertEquals(Arrays.asList(null, null), transformerHistory.getPhaseTapChangerPosition());
+
+        UUID threeWindingsNetworkUuid = UUID.randomUUID();
+        Network threeWindingsNetwork = ThreeWindingsTransformerNetworkFactory.create();
+        ThreeWindingsTransformer threeWindingsTransformer = threeWindingsNetwork.getThreeWindingsTransformer("3WT");
+        store.capture(threeWindingsNetworkUuid, DATE, threeWindingsNetwork);
+        threeWindingsTransformer.getLeg3().getTerminal().setQ(5);
+        threeWindingsTransformer.getLeg2().getRatioTapChanger().setTapPosition(0);
+        store.capture(threeWindingsNetworkUuid, DATE.plusSeconds(60), threeWindingsNetwork);
+        ThreeWindingsTransformerFlowHistoryMapData threeWindingsHistory = store.getThreeWindingsTransformers(threeWindingsNetworkUuid, DATE, DATE.plusSeconds(60))
+            .getThreeWindingsTransformers().get(0);
+        assertEquals("3WT", threeWindingsHistory.getId());
+        assertEquals(5.0, threeWindingsHistory.getQ3().get(1), 0);
+        assertEquals(0, (int) threeWindingsHistory.getRatioTapChanger2Position().get(1));
+        assertNull(threeWindingsHistory.getRatioTapChanger1Position().get(1));
+
+        store.remove(threeWindingsNetworkUuid);
+        assertTrue(store.getThreeWindingsTransformers(threeWindingsNetworkUuid, null, null).getThreeWindingsTransformers().isEmpty());
+    }
+
+    @Test
+    public void testMaxRuns() {
+        FlowHistoryStore store = new FlowHistoryStore(2, 10);
+        Network network = EurostagTutorialExample1Factory.create();
+        Line line = network.getLine("NHV1_NHV2_1");
+        for (int i = 0; i < 4; i++) {
+            line.getTerminal2().setP(i);
+            store.capture(NETWORK_UUID, DATE.plusSeconds(i), network);
+        }
+        FlowHistoryMapData history = store.getLines(NETWORK_UUID, null, null);
+        assertEquals(List.of(DATE.plusSeconds(2), DATE.plusSeconds(3)), history.getDates());
+        assertEquals(List.of(2.0, 3.0), getLine(history, "NHV1_NHV2_1").getP2());
+    }
+
+    @Test
+    public void testMaxNetworks() {
+        FlowHistoryStore store = new FlowHistoryStore(10, 2);
+        Network network = EurostagTutorialExample1Factory.create();
+        UUID[] networkUuids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        store.capture(networkUuids[0], DATE, network);
+        store.capture(networkUuids[1], DATE, network);
+        // the first network becomes the most recently used one
+        store.getLines(networkUuids[0], null, null);
+        store.capture(networkUuids[2], DATE, network);
+
+        assertEquals(List.of(DATE), store.getLines(networkUuids[0], null, null).getDates());
+        assertTrue(store.getLines(networkUuids[1], null, null).getDates().isEmpty());
+        assertEquals(List.of(DATE), store.getLines(networkUuids[2], null, null).getDates());
+    }
+
+    @Test
+    public void testNewLine() {
+        FlowHistoryStore store = new FlowHistoryStore(10, 10);
+        Network network = EurostagTutorialExample1Factory.create();
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(1);
+        store.capture(NETWORK_UUID, DATE, network);
+        network.newLine()
+            .setId("NHV1_NHV2_3")
+            .setVoltageLevel1("VLHV1")
+            .setBus1("NHV1")
+            .setVoltageLevel2("VLHV2")
+            .setBus2("NHV2")
+            .setR(3.0)
+            .setX(33.0)
+            .setB1(0.0)
+            .setB2(0.0)
+            .setG1(0.0)
+            .setG2(0.0)
+            .add()
+            .getTerminal1().setP(5);
+        store.capture(NETWORK_UUID, DATE.plusSeconds(1), network);
+
+        FlowHistoryMapData history = store.getLines(NETWORK_UUID, null, null);
+        assertEquals(List.of(1.0, 1.0), getLine(history, "NHV1_NHV2_1").getP1());
+        assertEquals(Arrays.asList(null, 5.0), getLine(history, "NHV1_NHV2_3").getP1());
+    }
+}
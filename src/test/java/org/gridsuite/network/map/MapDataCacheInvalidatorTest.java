@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.gridsuite.network.map.model.NetworkModificationNotification;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MapDataCacheInvalidatorTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    private static final UUID OTHER_NETWORK_UUID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+    private static CacheManager createCacheManager() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager(NetworkMapService.AGGREGATES_CACHE,
+            NetworkMapService.ALL_GZIP_CACHE, NetworkMapService.CLUSTERS_CACHE);
+        for (UUID networkUuid : new UUID[] {NETWORK_UUID, OTHER_NETWORK_UUID}) {
+            cacheManager.getCache(NetworkMapService.AGGREGATES_CACHE).put(networkUuid, "aggregates");
+            cacheManager.getCache(NetworkMapService.ALL_GZIP_CACHE).put(networkUuid, new byte[] {1});
+            cacheManager.getCache(NetworkMapService.CLUSTERS_CACHE).put(new SimpleKey(networkUuid, ClusterLevel.COUNTRY, false), "clusters");
+        }
+        return cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MapDataPayloadCache> provide(MapDataPayloadCache payloadCache) {
+        ObjectProvider<MapDataPayloadCache> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(payloadCache);
+        return provider;
+    }
+
+    private static MapDataCacheInvalidator createInvalidator(CacheManager cacheManager, MapDataPayloadCache payloadCache,
+                                                             FlowHistoryStore flowHistoryStore, MapDataInvalidationBus bus) {
+        return new MapDataCacheInvalidator(cacheManager, provide(payloadCache),
+            new MapDataSnapshotStore("", Duration.ofHours(1), DataSize.ofGigabytes(1)), new MapDataSliceCache(true, 10),
+            flowHistoryStore, bus);
+    }
+
+    private static MapDataCacheInvalidator createInvalidator(CacheManager cacheManager, MapDataPayloadCache payloadCache,
+                                                             MapDataInvalidationBus bus) {
+        return createInvalidator(cacheManager, payloadCache, new FlowHistoryStore(10, 10), bus);
+    }
+
+    private static void assertCached(CacheManager cacheManager, UUID networkUuid, boolean cached) {
+        assertEquals(cached, cacheManager.getCache(NetworkMapService.AGGREGATES_CACHE).get(networkUuid) != null);
+        assertEquals(cached, cacheManager.getCache(NetworkMapService.ALL_GZIP_CACHE).get(networkUuid) != null);
+        assertEquals(cached, cacheManager.getCache(NetworkMapService.CLUSTERS_CACHE).get(new SimpleKey(networkUuid, ClusterLevel.COUNTRY, false)) != null);
+    }
+
+    @Test
+    public void testInvalidateAllReplicas() {
+        MapDataPayloadCache sharedCache = new LocalMapDataPayloadCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        sharedCache.put(NETWORK_UUID, NetworkMapService.ALL_GZIP_CACHE, new byte[] {1});
+        sharedCache.put(OTHER_NETWORK_UUID, NetworkMapService.ALL_GZIP_CACHE, new byte[] {1});
+        MapDataInvalidationBus bus = new LocalMapDataInvalidationBus();
+        CacheManager cacheManager1 = createCacheManager();
+        CacheManager cacheManager2 = createCacheManager();
+        MapDataCacheInvalidator invalidator1 = createInvalidator(cacheManager1, sharedCache, bus);
+        createInvalidator(cacheManager2, sharedCache, bus);
+
+        invalidator1.invalidate(NETWORK_UUID);
+
+        assertTrue(sharedCache.get(NETWORK_UUID, NetworkMapService.ALL_GZIP_CACHE).isEmpty());
+        assertTrue(sharedCache.get(OTHER_NETWORK_UUID, NetworkMapService.ALL_GZIP_CACHE).isPresent());
+        assertCached(cacheManager1, NETWORK_UUID, false);
+        assertCached(cacheManager2, NETWORK_UUID, false);
+        assertCached(cacheManager1, OTHER_NETWORK_UUID, true);
+        assertCached(cacheManager2, OTHER_NETWORK_UUID, true);
+    }
+
+    @Test
+    public void testInvalidateWithoutSharedCache() {
+        CacheManager cacheManager = createCacheManager();
+        createInvalidator(cacheManager, null, new LocalMapDataInvalidationBus()).invalidate(NETWORK_UUID);
+        assertCached(cacheManager, NETWORK_UUID, false);
+    }
+
+    @Test
+    public void testInvalidateModifiedTypes() {
+        CacheManager cacheManager = createCacheManager();
+        MapDataCacheInvalidator invalidator = createInvalidator(cacheManager, null, new LocalMapDataInvalidationBus());
+
+        invalidator.invalidate(NetworkModificationNotification.builder().networkUuid(NETWORK_UUID).types(Set.of(EquipmentType.LINE)).build());
+        assertNull(cacheManager.getCache(NetworkMapService.ALL_GZIP_CACHE).get(NETWORK_UUID));
+        assertNotNull(cacheManager.getCache(NetworkMapService.AGGREGATES_CACHE).get(NETWORK_UUID));
+        assertNotNull(cacheManager.getCache(NetworkMapService.CLUSTERS_CACHE).get(new SimpleKey(NETWORK_UUID, ClusterLevel.COUNTRY, false)));
+
+        invalidator.invalidate(NetworkModificationNotification.builder().networkUuid(NETWORK_UUID).types(Set.of(EquipmentType.GENERATOR)).build());
+        assertNull(cacheManager.getCache(NetworkMapService.AGGREGATES_CACHE).get(NETWORK_UUID));
+        assertNotNull(cacheManager.getCache(NetworkMapService.CLUSTERS_CACHE).get(new SimpleKey(NETWORK_UUID, ClusterLevel.COUNTRY, false)));
+
+        invalidator.invalidate(NetworkModificationNotification.builder().networkUuid(NETWORK_UUID).types(Set.of(EquipmentType.SUBSTATION)).build());
+        assertCached(cacheManager, NETWORK_UUID, false);
+        assertCached(cacheManager, OTHER_NETWORK_UUID, true);
+    }
+
+    @Test
+    public void testDropFlowHistory() {
+        FlowHistoryStore flowHistoryStore = new FlowHistoryStore(10, 10);
+        Network network = EurostagTutorialExample1Factory.create();
+        flowHistoryStore.capture(NETWORK_UUID, Instant.EPOCH, network);
+        flowHistoryStore.capture(OTHER_NETWORK_UUID, Instant.EPOCH, network);
+        MapDataCacheInvalidator invalidator = createInvalidator(createCacheManager(), null, flowHistoryStore, new LocalMapDataInvalidationBus());
+
+        // line flows of a modified network can still be compared with the previous runs
+        invalidator.invalidate(NetworkModificationNotification.builder().networkUuid(NETWORK_UUID).types(Set.of(EquipmentType.LINE)).build());
+        assertEquals(1, flowHistoryStore.getLines(NETWORK_UUID, null, null).getDates().size());
+
+        invalidator.invalidate(NETWORK_UUID);
+        assertTrue(flowHistoryStore.getLines(NETWORK_UUID, null, null).getDates().isEmpty());
+        assertEquals(1, flowHistoryStore.getLines(OTHER_NETWORK_UUID, null, null).getDates().size());
+    }
+
+    @Test
+    public void testConsumeBrokerMessage() throws Exception {
+        CacheManager cacheManager = createCacheManager();
+        NetworkModificationConsumer consumer = new NetworkModificationConsumer(createInvalidator(cacheManager, null, new LocalMapDataInvalidationBus()));
+        // message as converted by the broker binder
+        NetworkModificationNotification notification = new ObjectMapper().readValue(
+            "{\"networkUuid\":\"" + NETWORK_UUID + "\",\"types\":[\"LOAD\"]}", NetworkModificationNotification.class);
+        assertEquals(Set.of(EquipmentType.LOAD), notification.getTypes());
+
+        consumer.accept(notification);
+
+        assertNull(cacheManager.getCache(NetworkMapService.ALL_GZIP_CACHE).get(NETWORK_UUID));
+        assertNull(cacheManager.getCache(NetworkMapService.AGGREGATES_CACHE).get(NETWORK_UUID));
+        assertNotNull(cacheManager.getCache(NetworkMapService.CLUSTERS_CACHE).get(new SimpleKey(NETWORK_UUID, ClusterLevel.COUNTRY, false)));
+        assertCached(cacheManager, OTHER_NETWORK_UUID, true);
+    }
+}
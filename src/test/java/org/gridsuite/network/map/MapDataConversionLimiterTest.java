@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MapDataConversionLimiterTest {
+
+    private MeterRegistry registry;
+
+    private MapDataConversionLimiter limiter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(registry);
+        limiter = new MapDataConversionLimiter(provider, 10, DataSize.ofBytes(100), Duration.ofMillis(10));
+    }
+
+    @Test
+    public void testAdmit() {
+        assertEquals("ok", limiter.admit(10, () -> "ok"));
+        // weights larger than the budget are capped
+        assertEquals("ok", limiter.admit(100, () -> "ok"));
+        assertEquals(2, registry.get("network.map.admission.wait").timer().count());
+        assertEquals(0, registry.get("network.map.admission.weight").gauge().value(), 0);
+    }
+
+    @Test
+    public void testReject() {
+        String result = limiter.admit(6, () -> {
+            assertEquals(6, registry.get("network.map.admission.weight").gauge().value(), 0);
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> limiter.admit(5, () -> "rejected"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            // the remaining budget is still available to lighter conversions
+            return limiter.admit(4, () -> "ok");
+        });
+        assertEquals("ok", result);
+        assertEquals(1, registry.get("network.map.admission.rejected").counter().count(), 0);
+        assertEquals(0, registry.get("network.map.admission.queue").gauge().value(), 0);
+    }
+
+    @Test
+    public void testGetWeight() {
+        assertEquals(1, limiter.getWeight(0));
+        assertEquals(1, limiter.getWeight(100));
+        assertEquals(2, limiter.getWeight(101));
+        // weights larger than the budget are capped
+        assertEquals(10, limiter.getWeight(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testAdmitUntilWritten() {
+        ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+        try {
+            assertEquals("ok", limiter.admitUntilWritten(6, () -> "ok"));
+            // held until the response is written
+            assertEquals(6, registry.get("network.map.admission.weight").gauge().value(), 0);
+            assertThrows(ResponseStatusException.class, () -> limiter.admitUntilWritten(5, () -> "rejected"));
+            assertThrows(IllegalStateException.class, () -> limiter.admitUntilWritten(4, () -> {
+                throw new IllegalStateException();
+            }));
+            assertEquals(6, registry.get("network.map.admission.weight").gauge().value(), 0);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        request.requestCompleted();
+        assertEquals(0, registry.get("network.map.admission.weight").gauge().value(), 0);
+
+        // released right away outside of a request
+        assertEquals("ok", limiter.admitUntilWritten(6, () -> "ok"));
+        assertEquals(0, registry.get("network.map.admission.weight").gauge().value(), 0);
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.gridsuite.network.map.model.TwoWindingsTransformerMapData;
+import org.gridsuite.network.map.model.VoltageLevelMapData;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MapDataFieldsTest {
+
+    @Test
+    public void testTerminalAndTapChangerFields() {
+        Network network = EurostagTutorialExample1Factory.create();
+        network.getTwoWindingsTransformer("NHV2_NLOAD").getTerminal1().setP(100).setQ(Double.NaN);
+
+        TwoWindingsTransformerMapData mapData = MapDataConverters.TWO_WINDINGS_TRANSFORMERS.toMapData(network.getTwoWindingsTransformer("NHV2_NLOAD"));
+        assertEquals("NHV2_NLOAD", mapData.getId());
+        assertEquals("VLHV2", mapData.getVoltageLevelId1());
+        assertEquals("VLLOAD", mapData.getVoltageLevelId2());
+        assertEquals(100, mapData.getP1(), 0);
+        assertNull(mapData.getQ1());
+        assertEquals(0, (int) mapData.getRatioTapChanger().getLowTap());
+        assertEquals(2, (int) mapData.getRatioTapChanger().getHighTap());
+        assertEquals(1, (int) mapData.getRatioTapChangerPosition());
+        assertNull(mapData.getPhaseTapChanger());
+        assertNull(mapData.getPhaseTapChangerPosition());
+    }
+
+    @Test
+    public void testIdentifiableFieldsRequireIdentifiable() {
+        MapDataFields.Builder<Terminal, VoltageLevelMapData.VoltageLevelMapDataBuilder, VoltageLevelMapData> builder =
+            MapDataFields.of(Terminal.class, VoltageLevelMapData::builder, VoltageLevelMapData.VoltageLevelMapDataBuilder::build);
+        assertThrows(IllegalArgumentException.class, () -> builder.identifiable(VoltageLevelMapData.VoltageLevelMapDataBuilder::name, VoltageLevelMapData.VoltageLevelMapDataBuilder::id));
+    }
+}
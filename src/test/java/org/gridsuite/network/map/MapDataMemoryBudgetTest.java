@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.gridsuite.network.map.model.AllMapData;
+import org.gridsuite.network.map.model.StreamedMapData;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MapDataMemoryBudgetTest {
+
+    @Test
+    public void testEstimateSize() {
+        Network network = EurostagTutorialExample1Factory.create();
+        long linesSize = MapDataMemoryBudget.estimateSize(network, EnumSet.of(EquipmentType.LINE));
+        assertTrue(linesSize > 0);
+        assertEquals(linesSize, MapDataMemoryBudget.estimateSize(network, EnumSet.of(EquipmentType.LINE, EquipmentType.BATTERY)));
+        assertTrue(MapDataMemoryBudget.estimateSize(network, EnumSet.allOf(EquipmentType.class)) > linesSize);
+    }
+
+    @Test
+    public void testEstimateFilteredSize() {
+        Network network = SyntheticNetworkFactory.create(100, 0);
+        long size = MapDataMemoryBudget.estimateSize(network, EnumSet.allOf(EquipmentType.class));
+        long highVoltageSize = MapDataMemoryBudget.estimateSize(network, EnumSet.allOf(EquipmentType.class), v -> v.getNominalV() >= 380);
+        assertTrue(highVoltageSize > 0);
+        assertTrue(highVoltageSize < size / 2);
+        assertEquals(0, MapDataMemoryBudget.estimateSize(network, EnumSet.allOf(EquipmentType.class), v -> false));
+        assertEquals(MapDataMemoryBudget.estimateSize(network, EnumSet.of(EquipmentType.LOAD)),
+            MapDataMemoryBudget.estimateSize(network, EnumSet.of(EquipmentType.LOAD), v -> true));
+    }
+
+    @Test
+    public void testRequiresStreaming() {
+        MapDataMemoryBudget budget = new MapDataMemoryBudget(DataSize.ofKilobytes(1), true);
+        assertFalse(budget.requiresStreaming(1024, false));
+        assertTrue(budget.requiresStreaming(1025, true));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> budget.requiresStreaming(1025, false));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+
+        MapDataMemoryBudget noStreamingBudget = new MapDataMemoryBudget(DataSize.ofKilobytes(1), false);
+        e = assertThrows(ResponseStatusException.class, () -> noStreamingBudget.requiresStreaming(1025, true));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+
+        // default budget is a share of the heap
+        assertFalse(new MapDataMemoryBudget(null, true).requiresStreaming(1024, false));
+    }
+
+    @Test
+    public void testStreamedMapDataLayout() throws Exception {
+        Network network = EurostagTutorialExample1Factory.create();
+        AllMapData.AllMapDataBuilder builder = AllMapData.builder();
+        Map<String, Supplier<Stream<?>>> streams = new LinkedHashMap<>();
+        MapDataConverters.getAll().forEach(converter -> {
+            converter.setMapData(builder, network);
+            streams.put(converter.getFieldName(), () -> converter.getMapDataStream(network));
+        });
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JSONAssert.assertEquals(objectMapper.writeValueAsString(builder.build()),
+            objectMapper.writeValueAsString(new StreamedMapData(streams)), true);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class MapDataPayloadCacheTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    private static final UUID OTHER_NETWORK_UUID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+    private static void testPutGetEvict(MapDataPayloadCache cache) {
+        assertEquals(Optional.empty(), cache.get(NETWORK_UUID, "all"));
+        byte[] payload = {1, 2, 3};
+        cache.put(NETWORK_UUID, "all", payload);
+        assertArrayEquals(payload, cache.get(NETWORK_UUID, "all").orElseThrow());
+        assertEquals(Optional.empty(), cache.get(NETWORK_UUID, "other"));
+        assertEquals(Optional.empty(), cache.get(OTHER_NETWORK_UUID, "all"));
+        cache.evict(NETWORK_UUID, "all");
+        assertEquals(Optional.empty(), cache.get(NETWORK_UUID, "all"));
+    }
+
+    private static void testTimeToLive(MapDataPayloadCache cache) {
+        cache.put(NETWORK_UUID, "all", new byte[] {1, 2, 3});
+        // expired as soon as written
+        assertEquals(Optional.empty(), cache.get(NETWORK_UUID, "all"));
+    }
+
+    @Test
+    public void testLocal() {
+        testPutGetEvict(new LocalMapDataPayloadCache(DataSize.ofGigabytes(1), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testLocalMaxSize() {
+        LocalMapDataPayloadCache cache = new LocalMapDataPayloadCache(DataSize.ofBytes(5), Duration.ofMinutes(1));
+        cache.put(NETWORK_UUID, "all", new byte[] {1, 2, 3});
+        cache.put(OTHER_NETWORK_UUID, "all", new byte[] {1, 2});
+        cache.get(NETWORK_UUID, "all");
+        cache.put(OTHER_NETWORK_UUID, "other", new byte[] {1});
+        // the least recently used payload is dropped
+        assertTrue(cache.get(NETWORK_UUID, "all").isPresent());
+        assertEquals(Optional.empty(), cache.get(OTHER_NETWORK_UUID, "all"));
+        assertTrue(cache.get(OTHER_NETWORK_UUID, "other").isPresent());
+    }
+
+    @Test
+    public void testSpringCache() {
+        testPutGetEvict(new SpringCacheMapDataPayloadCache(new ConcurrentMapCacheManager(SpringCacheMapDataPayloadCache.CACHE_NAME), Duration.ofMinutes(1)));
+        ConcurrentMapCacheManager otherCacheManager = new ConcurrentMapCacheManager("other");
+        assertThrows(NullPointerException.class, () -> new SpringCacheMapDataPayloadCache(otherCacheManager, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testTimeToLive() {
+        testTimeToLive(new LocalMapDataPayloadCache(DataSize.ofGigabytes(1), Duration.ZERO));
+        testTimeToLive(new SpringCacheMapDataPayloadCache(new ConcurrentMapCacheManager(SpringCacheMapDataPayloadCache.CACHE_NAME), Duration.ZERO));
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.gridsuite.network.map.model.AllMapData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MapDataProfileTest {
+
+    @After
+    public void tearDown() {
+        MapDataProfile.stop();
+    }
+
+    @Test
+    public void testInactive() {
+        assertFalse(MapDataProfile.isActive());
+        assertEquals("ok", MapDataProfile.time("step", () -> "ok"));
+        MapDataProfile.count("objects", 1);
+        assertNull(MapDataProfile.current());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProfile() {
+        MapDataProfile profile = MapDataProfile.start();
+        assertSame(profile, MapDataProfile.current());
+        Network network = EurostagTutorialExample1Factory.create();
+        MapDataTraversal.of(EnumSet.of(EquipmentType.LINE, EquipmentType.GENERATOR))
+            .traverse(network, List.of("P1", "P2"))
+            .setMapData(AllMapData.builder());
+        MapDataConverters.LOADS.setMapData(AllMapData.builder(), network);
+
+        assertTrue(profile.toServerTiming().matches("traversal;dur=[0-9.]+, conversion-loads;dur=[0-9.]+"));
+        Map<String, Object> trace = profile.toTrace();
+        assertEquals(List.of("traversal", "conversion-loads"), List.copyOf(((Map<String, Double>) trace.get("durations")).keySet()));
+        assertEquals(Map.of("lines", 2L, "lines-duplicates", 2L, "generators", 1L, "loads", 1L), trace.get("counts"));
+
+        MapDataProfile.stop();
+        assertFalse(MapDataProfile.isActive());
+    }
+}
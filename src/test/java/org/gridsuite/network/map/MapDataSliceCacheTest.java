@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import org.gridsuite.network.map.model.AllMapData;
+import org.gridsuite.network.map.model.LineMapData;
+import org.gridsuite.network.map.model.LoadMapData;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class MapDataSliceCacheTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    private static final Set<EquipmentType> ALL_TYPES = EnumSet.allOf(EquipmentType.class);
+
+    private static LoadMapData getLoad(AllMapData mapData, String id) {
+        return mapData.getLoads().stream().filter(l -> l.getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    private static LineMapData getLine(AllMapData mapData, String id) {
+        return mapData.getLines().stream().filter(l -> l.getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testReassembledMapData() {
+        Network network = SyntheticNetworkFactory.create(new SyntheticNetworkFactory.Parameters().setSubstationCount(20).setSeed(42));
+        MapDataSliceCache cache = new MapDataSliceCache(true, 10);
+        AllMapData.AllMapDataBuilder builder = AllMapData.builder();
+        ALL_TYPES.forEach(type -> MapDataConverters.get(type).setMapData(builder, network));
+        AllMapData expected = builder.build();
+
+        for (int i = 0; i < 2; i++) {
+            AllMapData mapData = cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+            assertEquals(new HashSet<>(expected.getSubstations()), new HashSet<>(mapData.getSubstations()));
+            assertEquals(new HashSet<>(expected.getLines()), new HashSet<>(mapData.getLines()));
+            assertEquals(expected.getLines().size(), mapData.getLines().size());
+            assertEquals(new HashSet<>(expected.getTwoWindingsTransformers()), new HashSet<>(mapData.getTwoWindingsTransformers()));
+            assertEquals(new HashSet<>(expected.getThreeWindingsTransformers()), new HashSet<>(mapData.getThreeWindingsTransformers()));
+            assertEquals(new HashSet<>(expected.getHvdcLines()), new HashSet<>(mapData.getHvdcLines()));
+            assertEquals(expected.getHvdcLines().size(), mapData.getHvdcLines().size());
+            assertEquals(new HashSet<>(expected.getLoads()), new HashSet<>(mapData.getLoads()));
+        }
+
+        AllMapData lines = cache.getMapData(NETWORK_UUID, network, EnumSet.of(EquipmentType.LINE));
+        assertEquals(expected.getLines().size(), lines.getLines().size());
+        assertNull(lines.getLoads());
+    }
+
+    @Test
+    public void testInvalidateEditedSubstations() {
+        // S0 is linked to S1 and S9 by lines and to S5 by an HVDC line
+        Network network = SyntheticNetworkFactory.create(new SyntheticNetworkFactory.Parameters().setSubstationCount(10).setSeed(42)
+            .setExtraLineRatio(0));
+        MapDataSliceCache cache = new MapDataSliceCache(true, 10);
+        cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+
+        network.getLoad("L3").setP0(12.5);
+        network.getLoad("L5").setP0(12.5);
+        network.getLine("LINE0").getTerminal2().setP(42.);
+        AllMapData mapData = cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+        assertNotEquals(12.5, getLoad(mapData, "L3").getP0(), 0);
+        assertNotEquals(42., getLine(mapData, "LINE0").getP2(), 0);
+
+        // the slice of S1, also holding LINE0, is dropped with the one of S0
+        cache.invalidate(NETWORK_UUID, Set.of("S0"));
+        mapData = cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+        assertEquals(42., getLine(mapData, "LINE0").getP2(), 0);
+        assertEquals(1, mapData.getLines().stream().filter(l -> l.getId().equals("LINE0")).count());
+        assertEquals(12.5, getLoad(mapData, "L5").getP0(), 0);
+        assertNotEquals(12.5, getLoad(mapData, "L3").getP0(), 0);
+
+        cache.invalidate(NETWORK_UUID, null);
+        mapData = cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+        assertEquals(12.5, getLoad(mapData, "L3").getP0(), 0);
+    }
+
+    @Test
+    public void testAddedSubstation() {
+        Network network = SyntheticNetworkFactory.create(3, 42);
+        MapDataSliceCache cache = new MapDataSliceCache(true, 10);
+        cache.getMapData(NETWORK_UUID, network, ALL_TYPES);
+
+        network.newSubstation().setId("NEW").add();
+        cache.invalidate(NETWORK_UUID, Set.of("NEW"));
+        List<String> substationIds = cache.getMapData(NETWORK_UUID, network, EnumSet.of(EquipmentType.SUBSTATION)).getSubstations()
+            .stream().map(s -> s.getId()).collect(Collectors.toList());
+        assertEquals(List.of("S0", "S1", "S2", "NEW"), substationIds);
+    }
+}
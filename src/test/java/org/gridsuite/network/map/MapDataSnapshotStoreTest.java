@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class MapDataSnapshotStoreTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    private static final UUID OTHER_NETWORK_UUID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MapDataSnapshotStore createStore(Duration timeToLive, DataSize maxSize) {
+        return new MapDataSnapshotStore(folder.getRoot().toString(), timeToLive, maxSize);
+    }
+
+    @Test
+    public void testDisabled() {
+        assertFalse(new MapDataSnapshotStore("", Duration.ofHours(1), DataSize.ofGigabytes(1)).isEnabled());
+    }
+
+    @Test
+    public void testVersion() {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        Network network = EurostagTutorialExample1Factory.create();
+        String version = store.getVersion(NETWORK_UUID, network);
+        assertEquals(version, store.getVersion(NETWORK_UUID, network));
+        network.setCaseDate(network.getCaseDate().plusHours(1));
+        assertNotEquals(version, store.getVersion(NETWORK_UUID, network));
+    }
+
+    @Test
+    public void testVersionChangesOnRemove() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        Network network = EurostagTutorialExample1Factory.create();
+        String version = store.getVersion(NETWORK_UUID, network);
+
+        // a snapshot converted before a modification but written after its notification is not served
+        store.remove(NETWORK_UUID);
+        store.put(NETWORK_UUID, version, new byte[] {1, 2, 3}).close();
+        String modifiedVersion = store.getVersion(NETWORK_UUID, network);
+        assertNotEquals(version, modifiedVersion);
+        assertEquals(Optional.empty(), store.open(NETWORK_UUID, modifiedVersion));
+        assertEquals(version, store.getVersion(UUID.randomUUID(), network));
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        assertTrue(store.isEnabled());
+        assertEquals(Optional.empty(), store.get(NETWORK_UUID, "v1"));
+
+        byte[] content = "snapshot".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(content, read(store.put(NETWORK_UUID, "v1", content)));
+        Path path = store.get(NETWORK_UUID, "v1").orElseThrow();
+        assertEquals(Optional.empty(), store.get(NETWORK_UUID, "v2"));
+
+        // a new store on the same directory starts with the existing snapshots
+        Optional<FileChannel> restored = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1)).open(NETWORK_UUID, "v1");
+        assertTrue(restored.isPresent());
+        assertArrayEquals(content, read(restored.get()));
+
+        // a new version replaces the previous one
+        store.put(NETWORK_UUID, "v2", content).close();
+        assertTrue(store.get(NETWORK_UUID, "v2").isPresent());
+        assertFalse(Files.exists(path));
+    }
+
+    private static byte[] read(FileChannel snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MapDataSnapshotStore.transferTo(snapshot, out);
+        assertFalse(snapshot.isOpen());
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testReadRemovedSnapshot() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        byte[] content = {1, 2, 3};
+        store.put(NETWORK_UUID, "v1", content).close();
+        FileChannel snapshot = store.open(NETWORK_UUID, "v1").orElseThrow();
+        FileChannel written = store.put(NETWORK_UUID, "v2", new byte[] {4, 5});
+
+        // an open snapshot is still read once replaced or removed
+        store.remove(NETWORK_UUID);
+        assertArrayEquals(content, read(snapshot));
+        assertArrayEquals(new byte[] {4, 5}, read(written));
+        assertEquals(Optional.empty(), store.open(NETWORK_UUID, "v2"));
+    }
+
+    @Test
+    public void testIndexDuplicates() throws Exception {
+        Path older = folder.getRoot().toPath().resolve(NETWORK_UUID + ".v1.json.gz");
+        Path newer = folder.getRoot().toPath().resolve(NETWORK_UUID + ".v2.json.gz");
+        Files.write(older, new byte[] {1});
+        Files.write(newer, new byte[] {2});
+        Files.setLastModifiedTime(older, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        assertEquals(Optional.of(newer), store.get(NETWORK_UUID, "v2"));
+        assertFalse(Files.exists(older));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofGigabytes(1));
+        store.put(NETWORK_UUID, "v1", new byte[] {1, 2, 3}).close();
+        Path path = store.get(NETWORK_UUID, "v1").orElseThrow();
+        store.remove(NETWORK_UUID);
+        assertEquals(Optional.empty(), store.get(NETWORK_UUID, "v1"));
+        assertFalse(Files.exists(path));
+        store.remove(NETWORK_UUID);
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ZERO, DataSize.ofGigabytes(1));
+        store.put(NETWORK_UUID, "v1", new byte[] {1, 2, 3}).close();
+        assertEquals(Optional.empty(), store.get(NETWORK_UUID, "v1"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        MapDataSnapshotStore store = createStore(Duration.ofHours(1), DataSize.ofBytes(5));
+        store.put(NETWORK_UUID, "v1", new byte[] {1, 2, 3}).close();
+        Path path = store.get(NETWORK_UUID, "v1").orElseThrow();
+        store.put(OTHER_NETWORK_UUID, "v1", new byte[] {1, 2, 3}).close();
+        assertEquals(Optional.empty(), store.get(NETWORK_UUID, "v1"));
+        assertFalse(Files.exists(path));
+        assertTrue(store.get(OTHER_NETWORK_UUID, "v1").isPresent());
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+public class NetworkMapCacheConfigTest {
+
+    @Test
+    public void testAllGzipCacheWeighsPayloads() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        new NetworkMapCacheConfig().allGzipCacheCustomizer(DataSize.ofBytes(100), Duration.ofMinutes(1)).customize(cacheManager);
+        Cache cache = cacheManager.getCache(NetworkMapService.ALL_GZIP_CACHE);
+        for (int i = 0; i < 10; i++) {
+            cache.put(new UUID(0, i), new byte[40]);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+        nativeCache.cleanUp();
+        assertEquals(2, nativeCache.estimatedSize());
+    }
+}
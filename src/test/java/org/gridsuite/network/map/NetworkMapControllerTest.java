@@ -30,26 +30,59 @@ import com.powsybl.network.store.client.NetworkStoreService;
 import com.powsybl.network.store.client.PreloadingStrategy;
 import com.powsybl.sld.iidm.extensions.BranchStatus;
 import com.powsybl.sld.iidm.extensions.BranchStatusAdder;
+import org.gridsuite.network.map.model.AllMapData;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.skyscreamer.jsonassert.JSONAssert;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
-
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -57,7 +90,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Franck Lecuyer <franck.lecuyer at rte-france.com>
  */
 @RunWith(SpringRunner.class)
-@WebMvcTest(NetworkMapController.class)
+@WebMvcTest(value = NetworkMapController.class, properties = "network-map.preloading.collection-threshold=2")
 @ContextConfiguration(classes = {NetworkMapApplication.class})
 public class NetworkMapControllerTest {
 
@@ -71,10 +104,22 @@ public class NetworkMapControllerTest {
     @MockBean
     private  NetworkStoreService networkStoreService;
 
+    @Autowired
+    private MapDataConversionLimiter conversionLimiter;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
 
+        Network network = createNetwork();
+
+        given(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).willReturn(network);
+        given(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.NONE)).willReturn(network);
+        given(networkStoreService.getNetwork(NOT_FOUND_NETWORK_ID, PreloadingStrategy.COLLECTION)).willThrow(new PowsyblException("Network " + NOT_FOUND_NETWORK_ID + " not found"));
+        given(networkStoreService.getNetwork(NOT_FOUND_NETWORK_ID, PreloadingStrategy.NONE)).willThrow(new PowsyblException("Network " + NOT_FOUND_NETWORK_ID + " not found"));
+    }
+
+    private Network createNetwork() {
         Network network = EurostagTutorialExample1Factory.create();
         Line l1 = network.getLine("NHV1_NHV2_1");
         l1.getTerminal1().setP(1.1)
@@ -344,10 +389,7 @@ public class NetworkMapControllerTest {
                 .setBus("NNEW2")
                 .add();
 
-        given(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION)).willReturn(network);
-        given(networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.NONE)).willReturn(network);
-        given(networkStoreService.getNetwork(NOT_FOUND_NETWORK_ID, PreloadingStrategy.COLLECTION)).willThrow(new PowsyblException("Network " + NOT_FOUND_NETWORK_ID + " not found"));
-        given(networkStoreService.getNetwork(NOT_FOUND_NETWORK_ID, PreloadingStrategy.NONE)).willThrow(new PowsyblException("Network " + NOT_FOUND_NETWORK_ID + " not found"));
+        return network;
     }
 
     private void make3WindingsTransformer(Substation p1, String id,
@@ -861,4 +903,386 @@ public class NetworkMapControllerTest {
         mvc.perform(get("/v1/hvdc-lines/{networkUuid}?substationId=P1", NOT_FOUND_NETWORK_ID))
                 .andExpect(status().isNotFound());
     }
+
+    private String ndjsonToJsonArray(MvcResult mvcResult) throws Exception {
+        String content = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        return "[" + String.join(",", content.lines().collect(Collectors.toList())) + "]";
+    }
+
+    @Test
+    public void shouldStreamLinesMapDataAsNdjson() throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/v1/lines/{networkUuid}/", NETWORK_UUID).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JSONAssert.assertEquals(resourceToString("/lines-map-data.json"), ndjsonToJsonArray(mvcResult), true);
+    }
+
+    @Test
+    public void shouldStreamLoadsMapDataFromIdsAsNdjson() throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/v1/loads/{networkUuid}?substationId=P2", NETWORK_UUID).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JSONAssert.assertEquals(resourceToString("/partial-loads-map-data.json"), ndjsonToJsonArray(mvcResult), true);
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfNdjsonLinesMapData() throws Exception {
+        mvc.perform(get("/v1/lines/{networkUuid}/", NOT_FOUND_NETWORK_ID).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnAggregatesMapData() throws Exception {
+        mvc.perform(get("/v1/aggregates/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/aggregates-map-data.json"), true));
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfAggregatesMapData() throws Exception {
+        mvc.perform(get("/v1/aggregates/{networkUuid}/", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnClustersMapData() throws Exception {
+        mvc.perform(get("/v1/clusters/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/clusters-map-data.json"), true));
+
+        mvc.perform(get("/v1/clusters/{networkUuid}/", NETWORK_UUID).queryParam("level", "COUNTRY").queryParam("withSubstationIds", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/country-clusters-map-data.json"), true));
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfClustersMapData() throws Exception {
+        mvc.perform(get("/v1/clusters/{networkUuid}/", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnLinesFlowHistory() throws Exception {
+        mvc.perform(post("/v1/history/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk());
+        mvc.perform(post("/v1/history/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/v1/history/{networkUuid}/lines", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.dates.length()").value(2))
+                .andExpect(jsonPath("$.lines[0].id").value("NHV1_NHV2_1"))
+                .andExpect(jsonPath("$.lines[0].p1[0]").value(1.1))
+                .andExpect(jsonPath("$.lines[0].p1[1]").value(1.1));
+
+        mvc.perform(get("/v1/history/{networkUuid}/2-windings-transformers", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates.length()").value(2))
+                .andExpect(jsonPath("$.lines").doesNotExist())
+                .andExpect(jsonPath("$.twoWindingsTransformers[0].id").value("NGEN_NHV1"))
+                .andExpect(jsonPath("$.twoWindingsTransformers[0].p1[1]").value(11.1))
+                .andExpect(jsonPath("$.twoWindingsTransformers[0].phaseTapChangerPosition[1]").value(1))
+                .andExpect(jsonPath("$.twoWindingsTransformers[1].ratioTapChangerPosition[0]").value(2));
+
+        mvc.perform(get("/v1/history/{networkUuid}/3-windings-transformers", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates.length()").value(2))
+                .andExpect(jsonPath("$.threeWindingsTransformers[0].id").value("TWT"))
+                .andExpect(jsonPath("$.threeWindingsTransformers[0].p1[0]").value(375.0));
+
+        mvc.perform(get("/v1/history/{networkUuid}/lines", NETWORK_UUID).queryParam("to", "2000-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates.length()").value(0));
+
+        mvc.perform(delete("/v1/history/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk());
+        mvc.perform(get("/v1/history/{networkUuid}/lines", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates.length()").value(0));
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfCapturingFlowHistory() throws Exception {
+        mvc.perform(post("/v1/history/{networkUuid}/", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldInvalidateCachedMapData() throws Exception {
+        mvc.perform(post("/v1/invalidations/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk());
+        mvc.perform(post("/v1/invalidations/{networkUuid}/", NETWORK_UUID).queryParam("types", "LINE", "GENERATOR"))
+                .andExpect(status().isOk());
+        mvc.perform(post("/v1/invalidations/{networkUuid}/", NETWORK_UUID).queryParam("substationId", "P1"))
+                .andExpect(status().isOk());
+        mvc.perform(post("/v1/invalidations/{networkUuid}/", NETWORK_UUID).queryParam("types", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnServerTimingWhenProfiled() throws Exception {
+        mvc.perform(get("/v1/lines/{networkUuid}/", NETWORK_UUID).queryParam("substationId", "P3"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(MapDataProfilingFilter.SERVER_TIMING_HEADER));
+
+        mvc.perform(get("/v1/lines/{networkUuid}/", NETWORK_UUID).queryParam("substationId", "P3")
+                        .header(MapDataProfilingFilter.PROFILE_HEADER, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MapDataProfilingFilter.SERVER_TIMING_HEADER,
+                        matchesPattern("network;dur=[0-9.]+, traversal;dur=[0-9.]+, handler;dur=[0-9.]+")))
+                .andExpect(content().json(resourceToString("/partial-lines-map-data.json"), true));
+
+        mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(MapDataProfilingFilter.PROFILE_HEADER, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MapDataProfilingFilter.SERVER_TIMING_HEADER, containsString("compression;dur=")));
+
+        MvcResult result = mvc.perform(get("/v1/lines/{networkUuid}/", NETWORK_UUID).accept(MediaType.APPLICATION_NDJSON)
+                        .header(MapDataProfilingFilter.PROFILE_HEADER, "true"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(MapDataProfilingFilter.SERVER_TIMING_HEADER, matchesPattern("network;dur=[0-9.]+, handler;dur=[0-9.]+")))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldReturnMostLoadedBranches() throws Exception {
+        Network network = networkStoreService.getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+        network.getBusBreakerView().getBus("NGEN").setV(24.5);
+        network.getBusBreakerView().getBus("NHV1").setV(402.1);
+        network.getBusBreakerView().getBus("NHV2").setV(389.9);
+
+        mvc.perform(get("/v1/loadings/{networkUuid}?top=2", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/branch-loadings-map-data.json"), true));
+
+        mvc.perform(get("/v1/loadings/{networkUuid}?threshold=1000", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]", true));
+
+        mvc.perform(get("/v1/loadings/{networkUuid}?top=0", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/v1/loadings/{networkUuid}?top=2147483647", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfMostLoadedBranches() throws Exception {
+        mvc.perform(get("/v1/loadings/{networkUuid}", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnGzipCompressedAllMapData() throws Exception {
+        byte[] compressed = mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))), StandardCharsets.UTF_8);
+        JSONAssert.assertEquals(resourceToString("/all-map-data.json"), json, true);
+
+        // gzip explicitly refused
+        mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().json(resourceToString("/all-map-data.json"), true));
+
+        // filtered requests are not precompressed
+        mvc.perform(get("/v1/all/{networkUuid}?substationId=P3", NETWORK_UUID).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().json(resourceToString("/partial-all-map-data.json"), true));
+    }
+
+    @Test
+    public void shouldParseAcceptEncoding() {
+        assertTrue(NetworkMapController.acceptsGzip("gzip"));
+        assertTrue(NetworkMapController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(NetworkMapController.acceptsGzip("*"));
+        assertFalse(NetworkMapController.acceptsGzip(null));
+        assertFalse(NetworkMapController.acceptsGzip("deflate"));
+        assertFalse(NetworkMapController.acceptsGzip("gzip;q=0"));
+        assertFalse(NetworkMapController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(NetworkMapController.acceptsGzip("x-gzip-like"));
+    }
+
+    @Test
+    public void shouldReturnDictionaryEncodedAllMapData() throws Exception {
+        mvc.perform(get("/v1/all/{networkUuid}?substationId=P3&dictionary=true", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/partial-all-map-data-dictionary.json"), true));
+    }
+
+    @Test
+    public void shouldReturnSelectedMapData() throws Exception {
+        mvc.perform(get("/v1/map-data/{networkUuid}?types=LINE,HVDC_LINE", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/map-data.json"), true));
+
+        // the admission is released once the response is written, so the whole budget is available again
+        assertEquals("released", conversionLimiter.admit(Integer.MAX_VALUE, () -> "released"));
+    }
+
+    @Test
+    public void shouldReturnSelectedMapDataFromIds() throws Exception {
+        mvc.perform(get("/v1/map-data/{networkUuid}?substationId=P3&types=SUBSTATION,LINE,BATTERY,VSC_CONVERTER_STATION", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/partial-map-data.json"), true));
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfSelectedMapData() throws Exception {
+        mvc.perform(get("/v1/map-data/{networkUuid}?types=LINE", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/v1/map-data/{networkUuid}?types=UNKNOWN", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/v1/map-data/{networkUuid}", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnAllMapDataOfSelectedTypes() throws Exception {
+        // a type subset is never served from the precompressed cache
+        mvc.perform(get("/v1/all/{networkUuid}?types=LINE,HVDC_LINE", NETWORK_UUID).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().json(resourceToString("/map-data.json"), true));
+
+        mvc.perform(get("/v1/all/{networkUuid}?substationId=P3&types=SUBSTATION,LINE,BATTERY,VSC_CONVERTER_STATION", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/partial-map-data.json"), true));
+
+        mvc.perform(get("/v1/all/{networkUuid}?types=UNKNOWN", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldPreloadCollectionsForManySubstations() throws Exception {
+        mvc.perform(get("/v1/lines/{networkUuid}?substationId=P1&substationId=P2", NETWORK_UUID))
+                .andExpect(status().isOk());
+        verify(networkStoreService).getNetwork(NETWORK_UUID, PreloadingStrategy.NONE);
+
+        mvc.perform(get("/v1/lines/{networkUuid}?substationId=P1&substationId=P2&substationId=P3", NETWORK_UUID))
+                .andExpect(status().isOk())
+                // lines are listed by substation instead of in network order
+                .andExpect(content().json(resourceToString("/lines-map-data.json"), false));
+        verify(networkStoreService).getNetwork(NETWORK_UUID, PreloadingStrategy.COLLECTION);
+    }
+
+    @Test
+    public void shouldReturnEquipmentsMapData() throws Exception {
+        mvc.perform(get("/v1/equipments/{networkUuid}?id=NHV1_NHV2_1&id=GEN&id=P1&id=HVDC1&id=VSC1&id=VLGEN&id=UNKNOWN", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/equipments-map-data.json"), true));
+    }
+
+    @Test
+    public void shouldReturnAnErrorInsteadOfEquipmentsMapData() throws Exception {
+        mvc.perform(get("/v1/equipments/{networkUuid}?id=GEN", NOT_FOUND_NETWORK_ID))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/v1/equipments/{networkUuid}", NETWORK_UUID))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldServeConcurrentRequests() throws Exception {
+        // as in production, each request reads its own network instance, only converted map data is shared, here the
+        // slices once they are cached
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID), any(PreloadingStrategy.class))).willAnswer(invocation -> createNetwork());
+        MapDataSliceCache sliceCache = new MapDataSliceCache(true, 10);
+        Set<EquipmentType> allTypes = EnumSet.allOf(EquipmentType.class);
+        AllMapData cached = sliceCache.getMapData(NETWORK_UUID, createNetwork(), allTypes);
+        Queue<AllMapData> reassembled = new ConcurrentLinkedQueue<>();
+
+        List<Callable<Void>> requests = List.of(
+            () -> {
+                reassembled.add(sliceCache.getMapData(NETWORK_UUID, createNetwork(), allTypes));
+                return null;
+            },
+            () -> {
+                mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID))
+                        .andExpect(status().isOk())
+                        .andExpect(content().json(resourceToString("/all-map-data.json"), true));
+                return null;
+            },
+            () -> {
+                mvc.perform(get("/v1/all/{networkUuid}?substationId=P3", NETWORK_UUID))
+                        .andExpect(status().isOk())
+                        .andExpect(content().json(resourceToString("/partial-all-map-data.json"), true));
+                return null;
+            },
+            () -> {
+                mvc.perform(get("/v1/lines/{networkUuid}?substationId=P3", NETWORK_UUID))
+                        .andExpect(status().isOk())
+                        .andExpect(content().json(resourceToString("/partial-lines-map-data.json"), true));
+                return null;
+            },
+            () -> {
+                mvc.perform(get("/v1/aggregates/{networkUuid}/", NETWORK_UUID))
+                        .andExpect(status().isOk())
+                        .andExpect(content().json(resourceToString("/aggregates-map-data.json"), true));
+                return null;
+            });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                tasks.addAll(requests);
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10, reassembled.size());
+        for (AllMapData mapData : reassembled) {
+            assertThrows(UnsupportedOperationException.class, () -> mapData.getLines().clear());
+            assertThrows(UnsupportedOperationException.class, () -> mapData.getLoads().clear());
+            assertEquals(cached.getLines().size(), mapData.getLines().size());
+            for (int i = 0; i < cached.getLines().size(); i++) {
+                assertSame(cached.getLines().get(i), mapData.getLines().get(i));
+            }
+            for (int i = 0; i < cached.getLoads().size(); i++) {
+                assertSame(cached.getLoads().get(i), mapData.getLoads().get(i));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReturnHighVoltageMapData() throws Exception {
+        mvc.perform(get("/v1/map-data/{networkUuid}?types=SUBSTATION,LINE,GENERATOR&minNominalVoltage=300", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(resourceToString("/high-voltage-map-data.json"), true));
+
+        mvc.perform(get("/v1/all/{networkUuid}?minNominalVoltage=400", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.substations").isEmpty())
+                .andExpect(jsonPath("$.lines").isEmpty())
+                .andExpect(jsonPath("$.loads").isEmpty());
+
+        // whole network traversals are admitted like whole network conversions, and released once written
+        assertEquals("released", conversionLimiter.admit(Integer.MAX_VALUE, () -> "released"));
+    }
 }
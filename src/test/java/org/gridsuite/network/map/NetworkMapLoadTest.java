@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Replays a mix of the requests of the map UI against an embedded server, whose network store serves synthetic
+ * networks, and reports the throughput, latency percentiles and the heap used by the requests. Only run with the
+ * load-test profile:
+ * <pre>
+ * mvn test -Pload-test -Dload-test.substations=10000 -Dload-test.concurrency=16 -Dload-test.requests=5000
+ * </pre>
+ * The mix is a list of request kinds with their weights, for instance {@code -Dload-test.mix=all:1,lines:4}. Only the
+ * gzip-all requests accept a compressed response. The payload caches are disabled unless a cache type is given, for
+ * instance {@code -Dload-test.cache-type=caffeine}, so that requests are converted rather than served from the cache.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"server.tomcat.threads.max=${load-test.concurrency:8}", "server.tomcat.threads.min-spare=${load-test.concurrency:8}",
+        "spring.cache.type=${load-test.cache-type:none}"})
+public class NetworkMapLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkMapLoadTest.class);
+
+    private static final int SUBSTATION_COUNT = Integer.getInteger("load-test.substations", 1000);
+
+    private static final int NETWORK_COUNT = Integer.getInteger("load-test.networks", 4);
+
+    private static final int CONCURRENCY = Integer.getInteger("load-test.concurrency", 8);
+
+    private static final int REQUEST_COUNT = Integer.getInteger("load-test.requests", 1000);
+
+    private static final String MIX = System.getProperty("load-test.mix", "all:1,gzip-all:1,filtered-all:4,lines:2,substations:2");
+
+    private static final int FILTERED_SUBSTATION_COUNT = 10;
+
+    private static final long SEED = 42;
+
+    private enum RequestKind {
+        ALL("all") {
+            @Override
+            String getPath(UUID networkUuid, Random random) {
+                return "/v1/all/" + networkUuid;
+            }
+        },
+        GZIP_ALL("gzip-all", true) {
+            @Override
+            String getPath(UUID networkUuid, Random random) {
+                return "/v1/all/" + networkUuid;
+            }
+        },
+        FILTERED_ALL("filtered-all") {
+            @Override
+            String getPath(UUID networkUuid, Random random) {
+                return "/v1/all/" + networkUuid + "?" + getSubstationsQuery(random);
+            }
+        },
+        LINES("lines") {
+            @Override
+            String getPath(UUID networkUuid, Random random) {
+                return "/v1/lines/" + networkUuid + "?" + getSubstationsQuery(random);
+            }
+        },
+        SUBSTATIONS("substations") {
+            @Override
+            String getPath(UUID networkUuid, Random random) {
+                return "/v1/substations/" + networkUuid;
+            }
+        };
+
+        private final String name;
+
+        private final boolean gzip;
+
+        RequestKind(String name) {
+            this(name, false);
+        }
+
+        RequestKind(String name, boolean gzip) {
+            this.name = name;
+            this.gzip = gzip;
+        }
+
+        abstract String getPath(UUID networkUuid, Random random);
+
+        static RequestKind of(String name) {
+            return Arrays.stream(values()).filter(kind -> kind.name.equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown request kind '" + name + "'"));
+        }
+
+        private static String getSubstationsQuery(Random random) {
+            int first = random.nextInt(SUBSTATION_COUNT);
+            return IntStream.range(0, Math.min(FILTERED_SUBSTATION_COUNT, SUBSTATION_COUNT))
+                .mapToObj(i -> "substationId=S" + (first + i) % SUBSTATION_COUNT)
+                .collect(Collectors.joining("&"));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private NetworkStoreService networkStoreService;
+
+    private final List<UUID> networkUuids = IntStream.range(0, NETWORK_COUNT)
+        .mapToObj(i -> new UUID(0, i))
+        .collect(Collectors.toList());
+
+    private long heapBaseline;
+
+    @Before
+    public void setUp() {
+        // network reads are not thread safe, each server thread reads its own copy, as if loaded from the store. The
+        // copies are built before the run, one per server thread, so that they are neither timed nor counted as used
+        // by the requests
+        BlockingQueue<Network> copies = IntStream.range(0, CONCURRENCY)
+            .mapToObj(i -> SyntheticNetworkFactory.create(SUBSTATION_COUNT, SEED))
+            .collect(Collectors.toCollection(LinkedBlockingQueue::new));
+        ThreadLocal<Network> networks = ThreadLocal.withInitial(() -> Optional.ofNullable(copies.poll())
+            .orElseGet(() -> SyntheticNetworkFactory.create(SUBSTATION_COUNT, SEED)));
+        for (UUID networkUuid : networkUuids) {
+            given(networkStoreService.getNetwork(eq(networkUuid), any(PreloadingStrategy.class))).willAnswer(invocation -> networks.get());
+        }
+        heapBaseline = resetHeapPeakUsage();
+    }
+
+    private static List<RequestKind> parseMix(String mix) {
+        List<RequestKind> kinds = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.split(":");
+            RequestKind kind = RequestKind.of(nameAndWeight[0].trim());
+            int weight = nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1].trim()) : 1;
+            kinds.addAll(Collections.nCopies(weight, kind));
+        }
+        return kinds;
+    }
+
+    private static long getPercentile(List<Long> sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(index, 0));
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Heap used once garbage collected, from which the peak usage is measured again.
+     */
+    private static long resetHeapPeakUsage() {
+        System.gc();
+        List<MemoryPoolMXBean> pools = getHeapPools();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        return pools.stream().map(MemoryPoolMXBean::getUsage).mapToLong(MemoryUsage::getUsed).sum();
+    }
+
+    private static long getHeapPeakUsage() {
+        return getHeapPools().stream()
+            .map(MemoryPoolMXBean::getPeakUsage)
+            .mapToLong(MemoryUsage::getUsed)
+            .sum();
+    }
+
+    private void report(Map<RequestKind, List<Long>> latencies, long elapsedNanos) {
+        StringBuilder report = new StringBuilder(String.format("%d requests on %d substations networks with %d clients: %.1f requests/s, heap peak %d MB over a %d MB baseline, networks included%n",
+            REQUEST_COUNT, SUBSTATION_COUNT, CONCURRENCY, REQUEST_COUNT * 1e9 / elapsedNanos, (getHeapPeakUsage() - heapBaseline) / (1024 * 1024),
+            heapBaseline / (1024 * 1024)));
+        latencies.forEach((kind, kindLatencies) -> {
+            List<Long> sorted = kindLatencies.stream().sorted().collect(Collectors.toList());
+            if (sorted.isEmpty()) {
+                return;
+            }
+            report.append(String.format("  %-12s count=%d p50=%dms p90=%dms p99=%dms max=%dms%n", kind.name, sorted.size(),
+                getPercentile(sorted, 50), getPercentile(sorted, 90), getPercentile(sorted, 99), sorted.get(sorted.size() - 1)));
+        });
+        LOGGER.info("Load test report\n{}", report);
+    }
+
+    @Test
+    public void replayMapRequests() throws Exception {
+        List<RequestKind> mix = parseMix(MIX);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        Map<RequestKind, List<Long>> latencies = new ConcurrentSkipListMap<>();
+        mix.forEach(kind -> latencies.putIfAbsent(kind, Collections.synchronizedList(new ArrayList<>())));
+        Random seeds = new Random(SEED);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Callable<Integer>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                Random random = new Random(seeds.nextLong());
+                RequestKind kind = mix.get(random.nextInt(mix.size()));
+                UUID networkUuid = networkUuids.get(random.nextInt(networkUuids.size()));
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + kind.getPath(networkUuid, random)))
+                    .header("Accept-Encoding", kind.gzip ? "gzip" : "identity")
+                    .build();
+                requests.add(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    latencies.get(kind).add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    return response.statusCode();
+                });
+            }
+
+            long start = System.nanoTime();
+            List<Future<Integer>> statuses = executor.invokeAll(requests);
+            long elapsed = System.nanoTime() - start;
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, (int) status.get());
+            }
+            report(latencies, elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
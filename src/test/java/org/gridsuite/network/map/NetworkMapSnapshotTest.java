@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.google.common.io.ByteStreams;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Whole network requests served from the snapshot directory.
+ */
+@RunWith(SpringRunner.class)
+@WebMvcTest(value = NetworkMapController.class, properties = "network-map.snapshot.directory=target/snapshots")
+@ContextConfiguration(classes = {NetworkMapApplication.class})
+public class NetworkMapSnapshotTest {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private NetworkStoreService networkStoreService;
+
+    @Before
+    public void setUp() {
+        given(networkStoreService.getNetwork(eq(NETWORK_UUID), any(PreloadingStrategy.class))).willAnswer(invocation -> EurostagTutorialExample1Factory.create());
+    }
+
+    @Test
+    public void shouldServeGzipAllMapDataFromSnapshot() throws Exception {
+        String json = mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // written on the first request, copied from the file on the next ones
+        for (int i = 0; i < 2; i++) {
+            byte[] compressed = mvc.perform(get("/v1/all/{networkUuid}/", NETWORK_UUID).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andReturn().getResponse().getContentAsByteArray();
+            String gzipJson = new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))), StandardCharsets.UTF_8);
+            JSONAssert.assertEquals(json, gzipJson, true);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Starts the whole application with the fast-start profile, as a new replica would, and checks that it is ready in
+ * time. The maximum startup duration can be set with {@code -Dstartup-test.max-duration=PT5S}.
+ */
+public class NetworkMapStartupTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkMapStartupTest.class);
+
+    private static final Duration MAX_STARTUP_DURATION = Duration.parse(System.getProperty("startup-test.max-duration", "PT20S"));
+
+    @Test
+    public void testFastStart() {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NetworkMapApplication.class)
+                .profiles("fast-start")
+                .run("--server.port=0")) {
+            Duration startup = Duration.ofNanos(System.nanoTime() - start);
+            LOGGER.info("Application started in {} ms with the fast-start profile", startup.toMillis());
+            assertTrue(context.getBeansOfType(Docket.class).isEmpty());
+            assertTrue("Started in " + startup.toMillis() + " ms", startup.compareTo(MAX_STARTUP_DURATION) <= 0);
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.Random;
+
+/**
+ * Creates networks of any size, with every equipment type of the map data and random flows, for load tests and
+ * scaling tests. Each substation has a 380 or 225 kV transmission voltage level, with a generator, connected by a
+ * two windings transformer to a 63 kV distribution voltage level, with a load and a shunt compensator. Transmission
+ * voltage levels are connected in a ring by lines, plus random lines across the ring. Other equipments are added
+ * periodically, every given number of substations. A network has about 8 equipments per substation.
+ */
+final class SyntheticNetworkFactory {
+
+    static final class Parameters {
+
+        private int substationCount = 100;
+
+        private long seed;
+
+        private Country[] countries = {Country.FR, Country.BE, Country.DE};
+
+        private double extraLineRatio = 0.2;
+
+        private int threeWindingsTransformerPeriod = 10;
+
+        private int staticVarCompensatorPeriod = 10;
+
+        private int batteryPeriod = 10;
+
+        private int danglingLinePeriod = 20;
+
+        private int hvdcLinePeriod = 50;
+
+        Parameters setSubstationCount(int substationCount) {
+            this.substationCount = substationCount;
+            return this;
+        }
+
+        Parameters setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        Parameters setCountries(Country... countries) {
+            this.countries = countries;
+            return this;
+        }
+
+        /**
+         * Number of lines across the ring, relative to the number of substations.
+         */
+        Parameters setExtraLineRatio(double extraLineRatio) {
+            this.extraLineRatio = extraLineRatio;
+            return this;
+        }
+
+        Parameters setThreeWindingsTransformerPeriod(int threeWindingsTransformerPeriod) {
+            this.threeWindingsTransformerPeriod = threeWindingsTransformerPeriod;
+            return this;
+        }
+
+        Parameters setStaticVarCompensatorPeriod(int staticVarCompensatorPeriod) {
+            this.staticVarCompensatorPeriod = staticVarCompensatorPeriod;
+            return this;
+        }
+
+        Parameters setBatteryPeriod(int batteryPeriod) {
+            this.batteryPeriod = batteryPeriod;
+            return this;
+        }
+
+        Parameters setDanglingLinePeriod(int danglingLinePeriod) {
+            this.danglingLinePeriod = danglingLinePeriod;
+            return this;
+        }
+
+        /**
+         * Every given number of substations, an hvdc line links it to the opposite substation of the ring, with
+         * VSC and LCC converter stations in turns.
+         */
+        Parameters setHvdcLinePeriod(int hvdcLinePeriod) {
+            this.hvdcLinePeriod = hvdcLinePeriod;
+            return this;
+        }
+    }
+
+    private final Parameters parameters;
+
+    private final Random random;
+
+    private final Network network;
+
+    private SyntheticNetworkFactory(Parameters parameters) {
+        this.parameters = parameters;
+        random = new Random(parameters.seed);
+        network = NetworkFactory.findDefault().createNetwork("synthetic-" + parameters.substationCount, "test");
+    }
+
+    static Network create(int substationCount, long seed) {
+        return create(new Parameters().setSubstationCount(substationCount).setSeed(seed));
+    }
+
+    static Network create(Parameters parameters) {
+        return new SyntheticNetworkFactory(parameters).create();
+    }
+
+    private static boolean isPeriodic(int i, int period) {
+        return period > 0 && i % period == 0;
+    }
+
+    private static String getTransmissionVoltageLevelId(int i) {
+        return "VL" + i + "_T";
+    }
+
+    private static String getTransmissionBusId(int i) {
+        return "B" + i + "_T";
+    }
+
+    private static String getDistributionVoltageLevelId(int i) {
+        return "VL" + i + "_D";
+    }
+
+    private static String getDistributionBusId(int i) {
+        return "B" + i + "_D";
+    }
+
+    private void setFlow(Terminal terminal) {
+        terminal.setP(random.nextDouble() * 200 - 100).setQ(random.nextDouble() * 60 - 30);
+    }
+
+    private void setFlows(Branch<?> branch) {
+        setFlow(branch.getTerminal1());
+        setFlow(branch.getTerminal2());
+    }
+
+    private Network create() {
+        int substationCount = parameters.substationCount;
+        for (int i = 0; i < substationCount; i++) {
+            createSubstation(i);
+        }
+        for (int i = 0; substationCount > 1 && i < substationCount; i++) {
+            createLine("LINE" + i, i, (i + 1) % substationCount);
+        }
+        int extraLineCount = substationCount > 1 ? (int) Math.round(substationCount * parameters.extraLineRatio) : 0;
+        for (int k = 0; k < extraLineCount; k++) {
+            int i = random.nextInt(substationCount);
+            int j = (i + 1 + random.nextInt(substationCount - 1)) % substationCount;
+            createLine("LINE_X" + k, i, j);
+        }
+        for (int i = 0; substationCount > 1 && i < substationCount; i++) {
+            if (isPeriodic(i, parameters.hvdcLinePeriod)) {
+                createHvdcLine(i, (i + substationCount / 2) % substationCount, i / parameters.hvdcLinePeriod % 2 == 0);
+            }
+        }
+        return network;
+    }
+
+    private VoltageLevel createVoltageLevel(Substation substation, String id, String busId, double nominalV) {
+        VoltageLevel voltageLevel = substation.newVoltageLevel()
+            .setId(id)
+            .setNominalV(nominalV)
+            .setTopologyKind(TopologyKind.BUS_BREAKER)
+            .add();
+        voltageLevel.getBusBreakerView().newBus()
+            .setId(busId)
+            .add();
+        return voltageLevel;
+    }
+
+    private void createSubstation(int i) {
+        Substation substation = network.newSubstation()
+            .setId("S" + i)
+            .setName("Substation " + i)
+            .setCountry(parameters.countries[i % parameters.countries.length])
+            .add();
+        VoltageLevel transmission = createVoltageLevel(substation, getTransmissionVoltageLevelId(i), getTransmissionBusId(i), i % 3 == 0 ? 380 : 225);
+        VoltageLevel distribution = createVoltageLevel(substation, getDistributionVoltageLevelId(i), getDistributionBusId(i), 63);
+
+        createTwoWindingsTransformer(substation, i, i % 2 == 1);
+        if (isPeriodic(i, parameters.threeWindingsTransformerPeriod)) {
+            createThreeWindingsTransformer(substation, i);
+        }
+
+        double targetP = random.nextDouble() * 500;
+        Generator generator = transmission.newGenerator()
+            .setId("G" + i)
+            .setBus(getTransmissionBusId(i))
+            .setConnectableBus(getTransmissionBusId(i))
+            .setEnergySource(EnergySource.values()[i % EnergySource.values().length])
+            .setMinP(0)
+            .setMaxP(500)
+            .setTargetP(targetP)
+            .setTargetV(transmission.getNominalV())
+            .setVoltageRegulatorOn(true)
+            .add();
+        generator.getTerminal().setP(-targetP).setQ(random.nextDouble() * 100 - 50);
+
+        Load load = distribution.newLoad()
+            .setId("L" + i)
+            .setBus(getDistributionBusId(i))
+            .setConnectableBus(getDistributionBusId(i))
+            .setP0(random.nextDouble() * 100)
+            .setQ0(random.nextDouble() * 10)
+            .add();
+        load.getTerminal().setP(load.getP0()).setQ(load.getQ0());
+
+        ShuntCompensator shunt = distribution.newShuntCompensator()
+            .setId("SH" + i)
+            .newLinearModel()
+            .setMaximumSectionCount(3)
+            .setBPerSection(1e-5)
+            .setGPerSection(0)
+            .add()
+            .setSectionCount(random.nextInt(4))
+            .setVoltageRegulatorOn(false)
+            .setBus(getDistributionBusId(i))
+            .setConnectableBus(getDistributionBusId(i))
+            .add();
+        shunt.getTerminal().setQ(random.nextDouble() * 30);
+
+        if (isPeriodic(i, parameters.staticVarCompensatorPeriod)) {
+            setFlow(transmission.newStaticVarCompensator()
+                .setId("SVC" + i)
+                .setRegulationMode(StaticVarCompensator.RegulationMode.VOLTAGE)
+                .setVoltageSetpoint(transmission.getNominalV())
+                .setBmin(-1e-3)
+                .setBmax(1e-3)
+                .setBus(getTransmissionBusId(i))
+                .setConnectableBus(getTransmissionBusId(i))
+                .add()
+                .getTerminal());
+        }
+        if (isPeriodic(i, parameters.batteryPeriod)) {
+            setFlow(distribution.newBattery()
+                .setId("BAT" + i)
+                .setMinP(-10)
+                .setMaxP(10)
+                .setP0(random.nextDouble() * 20 - 10)
+                .setQ0(0)
+                .setBus(getDistributionBusId(i))
+                .setConnectableBus(getDistributionBusId(i))
+                .add()
+                .getTerminal());
+        }
+        if (isPeriodic(i, parameters.danglingLinePeriod)) {
+            setFlow(transmission.newDanglingLine()
+                .setId("DL" + i)
+                .setR(1)
+                .setX(10)
+                .setG(0)
+                .setB(0)
+                .setP0(random.nextDouble() * 100)
+                .setQ0(0)
+                .setUcteXnodeCode("X" + i)
+                .setBus(getTransmissionBusId(i))
+                .setConnectableBus(getTransmissionBusId(i))
+                .add()
+                .getTerminal());
+        }
+    }
+
+    private void createLine(String id, int i, int j) {
+        Line line = network.newLine()
+            .setId(id)
+            .setVoltageLevel1(getTransmissionVoltageLevelId(i))
+            .setBus1(getTransmissionBusId(i))
+            .setConnectableBus1(getTransmissionBusId(i))
+            .setVoltageLevel2(getTransmissionVoltageLevelId(j))
+            .setBus2(getTransmissionBusId(j))
+            .setConnectableBus2(getTransmissionBusId(j))
+            .setR(1 + random.nextDouble())
+            .setX(10 + random.nextDouble() * 10)
+            .setG1(0)
+            .setB1(1e-6)
+            .setG2(0)
+            .setB2(1e-6)
+            .add();
+        line.newCurrentLimits1().setPermanentLimit(1000).add();
+        line.newCurrentLimits2().setPermanentLimit(1000).add();
+        setFlows(line);
+    }
+
+    private static <A extends RatioTapChangerAdder> A addRatioTapSteps(A adder) {
+        for (int k = 0; k < 3; k++) {
+            adder.beginStep()
+                .setRho(0.95 + k * 0.05)
+                .setR(0)
+                .setX(0)
+                .setG(0)
+                .setB(0)
+                .endStep();
+        }
+        return adder;
+    }
+
+    private void createTwoWindingsTransformer(Substation substation, int i, boolean withPhaseTapChanger) {
+        TwoWindingsTransformer transformer = substation.newTwoWindingsTransformer()
+            .setId("T2_" + i)
+            .setVoltageLevel1(getTransmissionVoltageLevelId(i))
+            .setBus1(getTransmissionBusId(i))
+            .setConnectableBus1(getTransmissionBusId(i))
+            .setVoltageLevel2(getDistributionVoltageLevelId(i))
+            .setBus2(getDistributionBusId(i))
+            .setConnectableBus2(getDistributionBusId(i))
+            .setRatedU1(network.getVoltageLevel(getTransmissionVoltageLevelId(i)).getNominalV())
+            .setRatedU2(63)
+            .setR(0.5)
+            .setX(20)
+            .setG(0)
+            .setB(0)
+            .add();
+        // a transformer with both tap changers is valid but logged as a warning at each conversion
+        if (!withPhaseTapChanger) {
+            addRatioTapSteps(transformer.newRatioTapChanger())
+                .setLowTapPosition(0)
+                .setTapPosition(random.nextInt(3))
+                .setLoadTapChangingCapabilities(false)
+                .add();
+        } else {
+            PhaseTapChangerAdder adder = transformer.newPhaseTapChanger()
+                .setLowTapPosition(0)
+                .setTapPosition(1)
+                .setRegulating(false)
+                .setRegulationMode(PhaseTapChanger.RegulationMode.FIXED_TAP);
+            for (int k = -1; k <= 1; k++) {
+                adder.beginStep()
+                    .setAlpha(k * 5.0)
+                    .setRho(1)
+                    .setR(0)
+                    .setX(0)
+                    .setG(0)
+                    .setB(0)
+                    .endStep();
+            }
+            adder.add();
+        }
+        transformer.newCurrentLimits1().setPermanentLimit(800).add();
+        setFlows(transformer);
+    }
+
+    private void createThreeWindingsTransformer(Substation substation, int i) {
+        String voltageLevelId = "VL" + i + "_M";
+        String busId = "B" + i + "_M";
+        createVoltageLevel(substation, voltageLevelId, busId, 20);
+        ThreeWindingsTransformer transformer = substation.newThreeWindingsTransformer()
+            .setId("T3_" + i)
+            .setRatedU0(network.getVoltageLevel(getTransmissionVoltageLevelId(i)).getNominalV())
+            .newLeg1()
+            .setVoltageLevel(getTransmissionVoltageLevelId(i))
+            .setBus(getTransmissionBusId(i))
+            .setConnectableBus(getTransmissionBusId(i))
+            .setR(0.5)
+            .setX(20)
+            .setG(0)
+            .setB(0)
+            .setRatedU(network.getVoltageLevel(getTransmissionVoltageLevelId(i)).getNominalV())
+            .add()
+            .newLeg2()
+            .setVoltageLevel(getDistributionVoltageLevelId(i))
+            .setBus(getDistributionBusId(i))
+            .setConnectableBus(getDistributionBusId(i))
+            .setR(0.5)
+            .setX(20)
+            .setG(0)
+            .setB(0)
+            .setRatedU(63)
+            .add()
+            .newLeg3()
+            .setVoltageLevel(voltageLevelId)
+            .setBus(busId)
+            .setConnectableBus(busId)
+            .setR(0.5)
+            .setX(20)
+            .setG(0)
+            .setB(0)
+            .setRatedU(20)
+            .add()
+            .add();
+        addRatioTapSteps(transformer.getLeg2().newRatioTapChanger())
+            .setLowTapPosition(0)
+            .setTapPosition(random.nextInt(3))
+            .setLoadTapChangingCapabilities(false)
+            .add();
+        for (ThreeWindingsTransformer.Side side : ThreeWindingsTransformer.Side.values()) {
+            setFlow(transformer.getTerminal(side));
+        }
+    }
+
+    private HvdcConverterStation<?> createConverterStation(int i, String id, boolean vsc) {
+        VoltageLevel voltageLevel = network.getVoltageLevel(getTransmissionVoltageLevelId(i));
+        HvdcConverterStation<?> station;
+        if (vsc) {
+            station = voltageLevel.newVscConverterStation()
+                .setId(id)
+                .setLossFactor(1)
+                .setVoltageRegulatorOn(true)
+                .setVoltageSetpoint(voltageLevel.getNominalV())
+                .setReactivePowerSetpoint(0)
+                .setBus(getTransmissionBusId(i))
+                .setConnectableBus(getTransmissionBusId(i))
+                .add();
+        } else {
+            station = voltageLevel.newLccConverterStation()
+                .setId(id)
+                .setLossFactor(1)
+                .setPowerFactor(0.8f)
+                .setBus(getTransmissionBusId(i))
+                .setConnectableBus(getTransmissionBusId(i))
+                .add();
+        }
+        setFlow(station.getTerminal());
+        return station;
+    }
+
+    private void createHvdcLine(int i, int j, boolean vsc) {
+        String prefix = vsc ? "VSC" : "LCC";
+        createConverterStation(i, prefix + i + "_1", vsc);
+        createConverterStation(j, prefix + i + "_2", vsc);
+        network.newHvdcLine()
+            .setId("HVDC" + i)
+            .setR(1)
+            .setMaxP(1000)
+            .setNominalV(320)
+            .setActivePowerSetpoint(random.nextDouble() * 1000)
+            .setConvertersMode(HvdcLine.ConvertersMode.SIDE_1_RECTIFIER_SIDE_2_INVERTER)
+            .setConverterStationId1(prefix + i + "_1")
+            .setConverterStationId2(prefix + i + "_2")
+            .add();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2021, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.network.map;
+
+import com.powsybl.iidm.network.Network;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class SyntheticNetworkFactoryTest {
+
+    @Test
+    public void testCreate() {
+        Network network = SyntheticNetworkFactory.create(100, 0);
+        assertEquals(100, network.getSubstationCount());
+        assertEquals(210, network.getVoltageLevelCount());
+        assertEquals(120, network.getLineCount());
+        assertEquals(100, network.getTwoWindingsTransformerCount());
+        assertEquals(50, network.getTwoWindingsTransformerStream().filter(t -> t.getPhaseTapChanger() != null).count());
+        assertTrue(network.getTwoWindingsTransformerStream().noneMatch(t -> t.getRatioTapChanger() != null && t.getPhaseTapChanger() != null));
+        assertEquals(10, network.getThreeWindingsTransformerCount());
+        assertEquals(100, network.getGeneratorCount());
+        assertEquals(100, network.getLoadCount());
+        assertEquals(100, network.getShuntCompensatorCount());
+        assertEquals(10, network.getStaticVarCompensatorCount());
+        assertEquals(10, network.getBatteryCount());
+        assertEquals(5, network.getDanglingLineCount());
+        assertEquals(2, network.getHvdcLineCount());
+        assertEquals(2, network.getVscConverterStationCount());
+        assertEquals(2, network.getLccConverterStationCount());
+
+        // every equipment type converts to map data
+        for (EquipmentType type : EquipmentType.values()) {
+            assertTrue(type.name(), MapDataConverters.get(type).getMapDataStream(network).findAny().isPresent());
+        }
+    }
+
+    @Test
+    public void testParameters() {
+        Network network = SyntheticNetworkFactory.create(new SyntheticNetworkFactory.Parameters()
+            .setSubstationCount(1)
+            .setThreeWindingsTransformerPeriod(0)
+            .setHvdcLinePeriod(1));
+        assertEquals(1, network.getSubstationCount());
+        assertEquals(0, network.getLineCount());
+        assertEquals(0, network.getThreeWindingsTransformerCount());
+        assertEquals(0, network.getHvdcLineCount());
+    }
+
+    @Test
+    public void testScaling() {
+        Network network = SyntheticNetworkFactory.create(10, 0);
+        Network largerNetwork = SyntheticNetworkFactory.create(1000, 0);
+        long size = MapDataMemoryBudget.estimateSize(network, EnumSet.allOf(EquipmentType.class));
+        long largerSize = MapDataMemoryBudget.estimateSize(largerNetwork, EnumSet.allOf(EquipmentType.class));
+        assertTrue(largerSize > 50 * size);
+    }
+
+    @Test
+    public void testSeed() {
+        Network network = SyntheticNetworkFactory.create(10, 1);
+        assertEquals(network.getLine("LINE0").getTerminal1().getP(), SyntheticNetworkFactory.create(10, 1).getLine("LINE0").getTerminal1().getP(), 0);
+        assertNotEquals(network.getLine("LINE0").getTerminal1().getP(), SyntheticNetworkFactory.create(10, 2).getLine("LINE0").getTerminal1().getP(), 0);
+    }
+}